@@ -2,27 +2,39 @@ package com.example.be;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class BeApplication {
 
+	private static final String PRODUCTION_PROFILE = "prod";
+
 	public static void main(String[] args) {
-		loadEnv();
+		// Production takes its configuration from the environment; .env is a local convenience
+		if (!isProfileActive(PRODUCTION_PROFILE, args)) {
+			loadEnv();
+		}
 		SpringApplication.run(BeApplication.class, args);
 	}
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-
+	// Checked before Spring starts, from the same sources it reads spring.profiles.active from
+	static boolean isProfileActive(String profile, String[] args) {
+		String active = System.getenv("SPRING_PROFILES_ACTIVE");
+		active = System.getProperty("spring.profiles.active", active);
+		for (String arg : args) {
+			if (arg.startsWith("--spring.profiles.active=")) {
+				active = arg.substring("--spring.profiles.active=".length());
+			}
+		}
+		return active != null && Arrays.stream(active.split(",")).map(String::trim).anyMatch(profile::equals);
+	}
 
     private static void loadEnv() {
 		try {
@@ -0,0 +1,126 @@
+package com.example.be.config;
+
+import com.example.be.util.RequestTiming;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Bounded pool for PR suggestion jobs. The worker never claims more jobs
+     * than there are free threads, so the queue only absorbs hand-off races.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor suggestionJobExecutor(
+            @Value("${suggestion.jobs.worker-threads:4}") int workerThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(workerThreads);
+        executor.setThreadNamePrefix("suggestion-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Threads for the per-issue fallback of bulk Jira fetches, shared by all
+     * requests so a large batch cannot open unbounded connections to Jira.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jiraFetchExecutor(
+            @Value("${jira.bulk.parallelism:8}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("jira-fetch-");
+        executor.setTaskDecorator(RequestTiming::propagate);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Separate from {@code jiraFetchExecutor} so token refreshes never queue
+     * behind issue fetches.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jiraTokenRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("jira-token-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs linked-issue lookups alongside the GitHub compare call. Kept apart
+     * from {@code jiraFetchExecutor}, which these lookups may fan out to.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jiraPrefetchExecutor(
+            @Value("${jira.prefetch.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("jira-prefetch-");
+        executor.setTaskDecorator(RequestTiming::propagate);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * One task per Jira site when a user's request spans several connections.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jiraFanOutExecutor(
+            @Value("${jira.fan-out.threads:16}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("jira-fan-out-");
+        executor.setTaskDecorator(RequestTiming::propagate);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Background Jira issue syncs, off the shared scheduler thread so a long sync
+     * never holds up job polling, lease recovery or token refreshes.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jiraIssueSyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("jira-issue-sync-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Site discovery, profile updates and cache warming started by logins.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor loginSyncExecutor(
+            @Value("${login-sync.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("login-sync-");
+        executor.initialize();
+        return executor;
+    }
+}
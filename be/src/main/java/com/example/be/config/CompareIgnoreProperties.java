@@ -0,0 +1,24 @@
+package com.example.be.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "compare.ignore")
+public class CompareIgnoreProperties {
+
+    private boolean enabled = true;
+
+    // Ant-style globs over the file path in the repository
+    private List<String> globs = new ArrayList<>();
+
+    // Larger patches are dropped; GitHub itself omits patches past a few thousand lines
+    private DataSize maxPatchSize = DataSize.ofKilobytes(256);
+
+    // Linguist-style checks for generated headers and minified JS/CSS
+    private boolean detectGenerated = true;
+}
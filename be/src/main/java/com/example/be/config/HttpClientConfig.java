@@ -0,0 +1,97 @@
+package com.example.be.config;
+
+import com.example.be.service.impl.JiraRequestMetrics;
+import com.example.be.service.impl.JiraSiteGuard;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound HTTP clients. Every upstream gets its own Reactor Netty connection
+ * pool (exported as {@code reactor.netty.connection.provider.*} metrics tagged
+ * with the client name) and its own timeouts from {@link HttpClientProperties}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HttpClientConfig implements DisposableBean {
+
+    private final HttpClientProperties properties;
+    private final List<ConnectionProvider> providers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Blocking client for Jira and Atlassian auth calls, guarded per site.
+     */
+    @Bean
+    public RestTemplate restTemplate(JiraRequestMetrics jiraRequestMetrics, JiraSiteGuard jiraSiteGuard) {
+        RestTemplate restTemplate = new RestTemplate(new ReactorClientHttpRequestFactory(httpClient("jira")));
+        // Metrics first so calls rejected by the guard are counted too
+        restTemplate.getInterceptors().add(jiraRequestMetrics);
+        restTemplate.getInterceptors().add(jiraSiteGuard);
+        return restTemplate;
+    }
+
+    @Bean
+    public WebClient githubWebClient() {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient("github")))
+                .baseUrl(baseUrl("github", "https://api.github.com"))
+                .defaultHeader("Accept", "application/vnd.github+json")
+                .defaultHeader("X-GitHub-Api-Version", "2022-11-28")
+                .build();
+    }
+
+    @Bean
+    public WebClient groqWebClient() {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient("groq")))
+                .baseUrl(baseUrl("groq", "https://api.groq.com"))
+                .build();
+    }
+
+    private String baseUrl(String name, String defaultUrl) {
+        String baseUrl = properties.client(name).getBaseUrl();
+        return baseUrl != null && !baseUrl.isBlank() ? baseUrl : defaultUrl;
+    }
+
+    private HttpClient httpClient(String name) {
+        HttpClientProperties.Client client = properties.client(name);
+
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(client.getMaxConnections())
+                .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+                .maxIdleTime(client.getMaxIdleTime())
+                .evictInBackground(client.getMaxIdleTime())
+                .metrics(true)
+                .build();
+        providers.add(provider);
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+                .responseTimeout(client.getResponseTimeout())
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(client.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+        if (client.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        return httpClient;
+    }
+
+    @Override
+    public void destroy() {
+        providers.forEach(provider -> provider.disposeLater().block());
+    }
+}
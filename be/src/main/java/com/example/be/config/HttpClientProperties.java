@@ -0,0 +1,38 @@
+package com.example.be.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-upstream settings for outbound HTTP clients, keyed by client name
+ * ({@code jira}, {@code github}, {@code groq}). Unlisted clients use the defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "http")
+public class HttpClientProperties {
+
+    private Map<String, Client> clients = new LinkedHashMap<>();
+
+    public Client client(String name) {
+        return clients.getOrDefault(name, new Client());
+    }
+
+    @Data
+    public static class Client {
+        private String baseUrl;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        // Time until the response headers arrive
+        private Duration responseTimeout = Duration.ofSeconds(30);
+        // Longest gap between two reads of the body
+        private Duration readTimeout = Duration.ofSeconds(30);
+        private int maxConnections = 50;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        // Negotiates HTTP/2 over TLS via ALPN; turn off for plain http:// upstreams
+        private boolean http2 = true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.be.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "jira.cache")
+public class JiraCacheProperties {
+
+    private boolean enabled = true;
+
+    // Reads fall through to Jira once the last sync is older than this
+    private Duration maxStaleness = Duration.ofMinutes(15);
+
+    // Extra look-back on incremental syncs to cover clock skew and slow indexing
+    private Duration syncOverlap = Duration.ofMinutes(2);
+
+    // Time between background syncs of all connections; a connection another node
+    // synced within half of it is skipped
+    private long syncIntervalMs = 300_000;
+
+    // Longest one node holds a connection's sync before another node may take over
+    private Duration syncLease = Duration.ofMinutes(10);
+
+    // Longest an in-memory typeahead index serves without re-reading jira_issues;
+    // bounds how long webhook changes applied on another node stay invisible
+    private Duration typeaheadTtl = Duration.ofMinutes(10);
+
+    // Shared secret for X-Hub-Signature on the webhook; the endpoint is disabled when blank
+    private String webhookSecret;
+}
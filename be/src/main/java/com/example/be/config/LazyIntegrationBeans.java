@@ -0,0 +1,38 @@
+package com.example.be.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the springdoc beans (API docs and Swagger UI) on first use instead of
+ * at startup. Their controllers are still mapped, the handler beans behind them
+ * are only instantiated when /v3/api-docs or /swagger-ui is first requested.
+ * Under AOT the lazy flag is carried into the generated bean definitions.
+ */
+@Component
+public class LazyIntegrationBeans implements BeanFactoryPostProcessor {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE && isSpringdoc(beanFactory, definition)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    // Auto-configured @Bean methods have no bean class of their own; their configuration class decides
+    private static boolean isSpringdoc(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String className = definition.getBeanClassName();
+        if (className == null && definition.getFactoryBeanName() != null
+                && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())) {
+            className = beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName();
+        }
+        return className != null && className.startsWith(SPRINGDOC_PACKAGE);
+    }
+}
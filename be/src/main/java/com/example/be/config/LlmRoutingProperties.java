@@ -0,0 +1,34 @@
+package com.example.be.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routing table for Groq chat completions. Routes are checked in order and the
+ * first one whose limits fit the diff is used.
+ */
+@Data
+@ConfigurationProperties(prefix = "groq.routing")
+public class LlmRoutingProperties {
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private String name;
+        private String model;
+        private int maxTokens = 1000;
+        private Duration timeout = Duration.ofSeconds(30);
+
+        // Upper bounds for this route, 0 means unbounded
+        private int maxChangedLines;
+        private int maxFiles;
+
+        // Route to retry on when this one errors or times out
+        private String fallback;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.be.config;
+
+import com.example.be.repository.UserRepository;
+import com.example.be.security.LoadTestAuthenticationFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+
+/**
+ * Beans for running the backend under the {@code loadtest} harness. Upstream
+ * URLs point at the harness stubs through {@code application-loadtest.yml}.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfig {
+
+    @Bean
+    public LoadTestAuthenticationFilter loadTestAuthenticationFilter(UserRepository userRepository,
+            ClientRegistrationRepository clientRegistrationRepository,
+            OAuth2AuthorizedClientService authorizedClientService) {
+        return new LoadTestAuthenticationFilter(userRepository, clientRegistrationRepository, authorizedClientService);
+    }
+
+    // Runs inside the security filter chain only, not as a servlet filter of its own
+    @Bean
+    public FilterRegistrationBean<LoadTestAuthenticationFilter> loadTestAuthenticationFilterRegistration(
+            LoadTestAuthenticationFilter filter) {
+        FilterRegistrationBean<LoadTestAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.be.config;
 
+import com.example.be.security.LoadTestAuthenticationFilter;
 import com.example.be.security.OAuth2LoginSuccessHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -17,9 +22,16 @@ import java.util.List;
 public class SecurityConfig {
 
     private final OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
+    // Only present under the loadtest profile
+    private final ObjectProvider<LoadTestAuthenticationFilter> loadTestAuthenticationFilter;
+    private final int managementPort;
 
-    public SecurityConfig(OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler) {
+    public SecurityConfig(OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler,
+            ObjectProvider<LoadTestAuthenticationFilter> loadTestAuthenticationFilter,
+            @Value("${management.server.port}") int managementPort) {
         this.oAuth2LoginSuccessHandler = oAuth2LoginSuccessHandler;
+        this.loadTestAuthenticationFilter = loadTestAuthenticationFilter;
+        this.managementPort = managementPort;
     }
 
     @Bean
@@ -29,6 +41,12 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/", "/login**", "/error**", "/oauth2/authorization/**").permitAll()
+                        // Signed with the shared secret instead of a session
+                        .requestMatchers(HttpMethod.POST, "/jiraConnection/webhook/**").permitAll()
+                        // Probes and the Prometheus scraper, only on the internal management port
+                        .requestMatchers(request -> request.getLocalPort() == managementPort
+                                && HttpMethod.GET.matches(request.getMethod())
+                                && request.getRequestURI().startsWith("/actuator/")).permitAll()
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 -> oauth2
@@ -43,6 +61,8 @@ public class SecurityConfig {
                         .deleteCookies("JSESSIONID", "user_id")
                         .permitAll()
                 );
+        loadTestAuthenticationFilter.ifAvailable(
+                filter -> http.addFilterBefore(filter, AnonymousAuthenticationFilter.class));
         return http.build();
     }
 
@@ -0,0 +1,105 @@
+package com.example.be.config;
+
+import com.example.be.util.RequestTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Binds a {@link RequestTiming} to every request and reports it as a
+ * {@code Server-Timing} header and, for sampled or slow requests, as one
+ * structured log record. With the header and the log both off, requests pass
+ * straight through and every timing call in the services is a no-op.
+ *
+ * <p>The header is written by {@link ServerTimingAdvice} just before the body,
+ * so it cannot include serialization; the log record does, as {@code serialize}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+    // Set by ServerTimingAdvice when the body starts, as System.nanoTime()
+    static final String BODY_START = ServerTimingFilter.class.getName() + ".bodyStart";
+
+    @Value("${server-timing.header-enabled:true}")
+    private boolean headerEnabled;
+
+    // Share of requests logged with their breakdown, 0..1
+    @Value("${server-timing.log-sample-rate:0}")
+    private double logSampleRate;
+
+    // Requests at least this slow are always logged; 0 turns it off
+    @Value("${server-timing.log-slow-ms:0}")
+    private long logSlowMs;
+
+    boolean isHeaderEnabled() {
+        return headerEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!headerEnabled && logSampleRate <= 0 && logSlowMs <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTiming timing = RequestTiming.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.end();
+            // Responses without a body never reach the advice
+            if (headerEnabled && !response.isCommitted() && !response.containsHeader(HEADER)) {
+                response.setHeader(HEADER, timing.toHeader());
+            }
+            long totalNanos = timing.elapsedNanos();
+            if (shouldLog(totalNanos)) {
+                log(request, response, timing, totalNanos);
+            }
+        }
+    }
+
+    private boolean shouldLog(long totalNanos) {
+        return (logSlowMs > 0 && totalNanos >= logSlowMs * 1_000_000)
+                || (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate);
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, RequestTiming timing, long totalNanos) {
+        if (request.getAttribute(BODY_START) instanceof Long bodyStart) {
+            timing.add("serialize", System.nanoTime() - bodyStart);
+        }
+        Map<String, RequestTiming.Phase> phases = timing.phases();
+
+        StringBuilder breakdown = new StringBuilder();
+        LoggingEventBuilder event = log.atInfo()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("total_ms", RequestTiming.millis(totalNanos));
+        phases.forEach((name, phase) -> {
+            event.addKeyValue(name + "_ms", RequestTiming.millis(phase.getNanos()));
+            event.addKeyValue(name + "_count", phase.getCount());
+            breakdown.append(' ').append(name).append('=').append(RequestTiming.millis(phase.getNanos())).append("ms");
+            if (phase.getCount() > 1) {
+                breakdown.append('/').append(phase.getCount());
+            }
+        });
+        event.log("Request timing: {} {} {} in {} ms:{}", request.getMethod(), request.getRequestURI(),
+                response.getStatus(), RequestTiming.millis(totalNanos), breakdown);
+    }
+}
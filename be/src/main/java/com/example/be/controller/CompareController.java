@@ -1,12 +1,26 @@
 package com.example.be.controller;
 
+import com.example.be.dto.CompareFile;
 import com.example.be.dto.CompareRequest;
+import com.example.be.dto.CompareResponse;
+import com.example.be.dto.CompareResponseMode;
+import com.example.be.dto.CompareStreamRecord;
+import com.example.be.dto.JiraIssueDetails;
 import com.example.be.dto.PRSuggestion;
 import com.example.be.model.CompareResult;
+import com.example.be.model.SuggestionJob;
 import com.example.be.repository.CompareRepository;
+import com.example.be.security.UserIdentitySession;
 import com.example.be.service.GitHubService;
-import com.example.be.service.LLMService;
+import com.example.be.service.LinkedIssueService;
+import com.example.be.service.PRSuggestionService;
+import com.example.be.service.SuggestionJobService;
+import com.example.be.util.JiraKeys;
+import com.example.be.util.RequestTiming;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
@@ -14,15 +28,28 @@ import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/compare")
+@Slf4j
 public class CompareController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private GitHubService gitHubService;
 
@@ -33,11 +60,24 @@ public class CompareController {
     private OAuth2AuthorizedClientService authorizedClientService;
 
     @Autowired
-    private LLMService llmService;
+    private PRSuggestionService prSuggestionService;
+
+    @Autowired
+    private SuggestionJobService suggestionJobService;
+
+    @Autowired
+    private LinkedIssueService linkedIssueService;
+
+    @Autowired
+    private UserIdentitySession userIdentitySession;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<Map<String, Object>> compareCommits(
             @RequestBody CompareRequest request,
+            @RequestParam(defaultValue = "full") String mode,
             Authentication authentication) {
 
         if (authentication == null || !(authentication instanceof OAuth2AuthenticationToken)) {
@@ -47,6 +87,11 @@ public class CompareController {
             return ResponseEntity.status(401).body(errorResponse);
         }
 
+        CompareResponseMode responseMode = CompareResponseMode.parse(mode).orElse(null);
+        if (responseMode == null) {
+            return invalidMode(mode);
+        }
+
         OAuth2AuthenticationToken oauthToken = (OAuth2AuthenticationToken) authentication;
         OAuth2User principal = oauthToken.getPrincipal();
 
@@ -64,6 +109,13 @@ public class CompareController {
 
         String token = client.getAccessToken().getTokenValue();
 
+        // Jira keys in the branch name are known up front, fetch them while GitHub works
+        Object principalId = principal.getAttribute("id");
+        String providerId = principalId != null ? String.valueOf(principalId) : null;
+        Set<String> branchKeys = linkedIssueService.branchKeys(providerId, request.getHeadBranch());
+        CompletableFuture<Map<String, JiraIssueDetails>> prefetchedIssues =
+                linkedIssueService.prefetch(providerId, branchKeys);
+
         // Call GitHub API
         Map<String, Object> githubResponse = gitHubService.compareCommits(
                 request.getOwner(),
@@ -83,30 +135,147 @@ public class CompareController {
             userId = ((Number) idAttr).longValue();
         }
 
-        CompareResult compareResult = CompareResult.builder()
-                .owner(request.getOwner())
-                .repo(request.getRepo())
-                .baseBranch(request.getBaseBranch())
-                .headBranch(request.getHeadBranch())
-                .patches((String) githubResponse.get("patches"))
-                .deletedCode((String) githubResponse.get("deletedCode"))
-                .addedCode((String) githubResponse.get("addedCode"))
-                .filesChanged((Integer) githubResponse.get("filesChanged"))
-                .additions((Integer) githubResponse.get("additions"))
-                .deletions((Integer) githubResponse.get("deletions"))
-                .userId(userId)
-                .build();
+        @SuppressWarnings("unchecked")
+        List<String> commitMessages = (List<String>) githubResponse.get("commitMessages");
+        CompareResult compareResult = saveCompare(request, githubResponse, userId, branchKeys, commitMessages);
+
+        // Pipelined mode: start the suggestion before the user asks for it
+        suggestionJobService.enqueueSpeculative(compareResult);
+
+        // Time left waiting on Jira once GitHub and the database are done
+        try (RequestTiming.Span issues = RequestTiming.start("issues")) {
+            compareResult.setLinkedIssues(
+                    linkedIssueService.collect(providerId, branchKeys, prefetchedIssues, commitMessages));
+        }
 
-        compareRepository.save(compareResult);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> files = (List<Map<String, Object>>) githubResponse.get("files");
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("data", compareResult);
+        response.put("data", view(compareResult, responseMode,
+                () -> files == null ? List.of() : files.stream().map(CompareFile::from).toList()));
         response.put("message", "Comparison completed and saved successfully");
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Compare as NDJSON (see CompareStreamRecord): a header once GitHub's commits
+     * are read, each file as soon as it is parsed, then the saved compare in
+     * summary form. Failures after the response has started arrive as an error
+     * record, since the status is already sent.
+     */
+    @PostMapping("/stream")
+    public ResponseEntity<?> streamCompare(
+            @RequestBody CompareRequest request,
+            Authentication authentication) {
+
+        if (authentication == null || !(authentication instanceof OAuth2AuthenticationToken)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "User not authenticated");
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+
+        OAuth2AuthenticationToken oauthToken = (OAuth2AuthenticationToken) authentication;
+        OAuth2AuthorizedClient client = authorizedClientService.loadAuthorizedClient(
+                oauthToken.getAuthorizedClientRegistrationId(),
+                oauthToken.getName());
+
+        if (client == null || client.getAccessToken() == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Unable to retrieve access token");
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+
+        String token = client.getAccessToken().getTokenValue();
+        Object idAttr = oauthToken.getPrincipal().getAttribute("id");
+        String providerId = idAttr != null ? String.valueOf(idAttr) : null;
+        Long userId = idAttr != null ? ((Number) idAttr).longValue() : null;
+        Set<String> branchKeys = linkedIssueService.branchKeys(providerId, request.getHeadBranch());
+        CompletableFuture<Map<String, JiraIssueDetails>> prefetchedIssues =
+                linkedIssueService.prefetch(providerId, branchKeys);
+
+        StreamingResponseBody body = out -> {
+            try {
+                Map<String, Object> githubResponse = gitHubService.streamCompare(
+                        request.getOwner(),
+                        request.getRepo(),
+                        request.getBaseBranch(),
+                        request.getHeadBranch(),
+                        token,
+                        header -> writeRecord(out, headerRecord(header, branchKeys)),
+                        file -> writeRecord(out, CompareStreamRecord.file(file)));
+
+                if (!(Boolean) githubResponse.get("success")) {
+                    writeRecord(out, CompareStreamRecord.error((String) githubResponse.get("error")));
+                    return;
+                }
+
+                @SuppressWarnings("unchecked")
+                List<String> commitMessages = (List<String>) githubResponse.get("commitMessages");
+                CompareResult compareResult = saveCompare(request, githubResponse, userId, branchKeys, commitMessages);
+                suggestionJobService.enqueueSpeculative(compareResult);
+                compareResult.setLinkedIssues(
+                        linkedIssueService.collect(providerId, branchKeys, prefetchedIssues, commitMessages));
+                writeRecord(out, CompareStreamRecord.complete(CompareResponse.of(compareResult, null)));
+            } catch (UncheckedIOException e) {
+                // The client went away; stop reading from GitHub
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                // The 200 is already sent, so saving or queueing failures end the stream as a record
+                log.error("Compare stream for {}/{} failed", request.getOwner(), request.getRepo(), e);
+                writeRecord(out, CompareStreamRecord.error("Failed to save comparison: " + e.getMessage()));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * A saved compare of the current user, by default with its files; the detail
+     * a SUMMARY-mode client loads on demand.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getCompare(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "files") String mode,
+            Authentication authentication) {
+
+        if (authentication == null || !(authentication instanceof OAuth2AuthenticationToken)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "User not authenticated");
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+
+        CompareResponseMode responseMode = CompareResponseMode.parse(mode).orElse(null);
+        if (responseMode == null) {
+            return invalidMode(mode);
+        }
+
+        Object idAttr = ((OAuth2AuthenticationToken) authentication).getPrincipal().getAttribute("id");
+        Long userId = idAttr != null ? ((Number) idAttr).longValue() : null;
+
+        // Other users' compares are reported as missing rather than forbidden
+        CompareResult compareResult = compareRepository.findById(id)
+                .filter(result -> result.getUserId() != null && result.getUserId().equals(userId))
+                .orElse(null);
+        if (compareResult == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Comparison result not found");
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", view(compareResult, responseMode,
+                () -> gitHubService.parsePatches(compareResult.getPatches())));
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/history")
     public ResponseEntity<List<CompareResult>> getHistory(Authentication authentication) {
         if (authentication == null || !(authentication instanceof OAuth2AuthenticationToken)) {
@@ -131,15 +300,17 @@ public class CompareController {
     }
 
     @PostMapping("/{id}/generate-pr-suggestion")
-    public ResponseEntity<Map<String, Object>> generatePRSuggestion(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> generatePRSuggestion(
             @PathVariable Long id,
-            Authentication authentication) {
+            @RequestParam(defaultValue = "false") boolean async,
+            Authentication authentication,
+            HttpServletRequest httpRequest) {
 
         if (authentication == null || !(authentication instanceof OAuth2AuthenticationToken)) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
             errorResponse.put("error", "User not authenticated");
-            return ResponseEntity.status(401).body(errorResponse);
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body(errorResponse));
         }
 
         // Find the comparison result
@@ -148,16 +319,133 @@ public class CompareController {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
             errorResponse.put("error", "Comparison result not found");
-            return ResponseEntity.status(404).body(errorResponse);
+            return CompletableFuture.completedFuture(ResponseEntity.status(404).body(errorResponse));
         }
 
-        // Generate PR suggestion using LLM
-        PRSuggestion suggestion = llmService.generatePRSuggestion(compareResult);
+        if (async) {
+            // Job mode: hand the work to the worker pool and let the client poll or subscribe
+            // Owned by the GitHub user so the job endpoints, which match on that id, can find it
+            OAuth2User principal = ((OAuth2AuthenticationToken) authentication).getPrincipal();
+            Long userId = userIdentitySession.get(httpRequest, principal).ownerId();
+            if (userId == null) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("error", "Link a GitHub account to run suggestion jobs");
+                return CompletableFuture.completedFuture(ResponseEntity.status(403).body(errorResponse));
+            }
+
+            SuggestionJob job = suggestionJobService.submit(compareResult, userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().body(response));
+        }
+
+        // An earlier or speculative job for this comparison is waited on, off the servlet
+        // thread, instead of generating the same suggestion a second time
+        Optional<SuggestionJob> existing = suggestionJobService.findReusable(compareResult.getId());
+        if (existing.isPresent()) {
+            return suggestionJobService.awaitFinished(existing.get()).thenApply(this::jobResponse);
+        }
+
+        PRSuggestion suggestion = prSuggestionService.generate(compareResult);
+        // Keep the result so near-duplicate compares can reuse it
+        suggestionJobService.recordCompleted(compareResult, compareResult.getUserId(), suggestion);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("data", suggestion);
 
+        return CompletableFuture.completedFuture(ResponseEntity.ok(response));
+    }
+
+    // A job still running after the wait is handed to the client to follow, like the async mode
+    private ResponseEntity<Map<String, Object>> jobResponse(SuggestionJob job) {
+        Map<String, Object> response = new HashMap<>();
+        if (!job.isFinished()) {
+            response.put("success", true);
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+            return ResponseEntity.accepted().body(response);
+        }
+
+        Optional<PRSuggestion> suggestion = suggestionJobService.suggestionOf(job);
+        if (suggestion.isEmpty()) {
+            response.put("success", false);
+            response.put("error", job.getError() != null ? job.getError() : "Suggestion job failed");
+            return ResponseEntity.status(502).body(response);
+        }
+        response.put("success", true);
+        response.put("data", suggestion.get());
         return ResponseEntity.ok(response);
     }
+
+    private CompareResult saveCompare(CompareRequest request, Map<String, Object> githubResponse, Long userId,
+            Set<String> branchKeys, List<String> commitMessages) {
+        Set<String> linkedKeys = new LinkedHashSet<>(branchKeys);
+        linkedKeys.addAll(JiraKeys.fromMessages(commitMessages));
+
+        CompareResult compareResult = CompareResult.builder()
+                .owner(request.getOwner())
+                .repo(request.getRepo())
+                .baseBranch(request.getBaseBranch())
+                .headBranch(request.getHeadBranch())
+                .patches((String) githubResponse.get("patches"))
+                .deletedCode((String) githubResponse.get("deletedCode"))
+                .addedCode((String) githubResponse.get("addedCode"))
+                .filesChanged((Integer) githubResponse.get("filesChanged"))
+                .filesIgnored((Integer) githubResponse.get("filesIgnored"))
+                .additions((Integer) githubResponse.get("additions"))
+                .deletions((Integer) githubResponse.get("deletions"))
+                .diffSimhash((Long) githubResponse.get("diffSimhash"))
+                .linkedIssueKeys(linkedKeys.isEmpty() ? null : String.join(",", linkedKeys))
+                .userId(userId)
+                .build();
+
+        return compareRepository.save(compareResult);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompareStreamRecord headerRecord(Map<String, Object> header, Set<String> branchKeys) {
+        Set<String> linkedKeys = new LinkedHashSet<>(branchKeys);
+        linkedKeys.addAll(JiraKeys.fromMessages((List<String>) header.get("commitMessages")));
+        return CompareStreamRecord.builder()
+                .type(CompareStreamRecord.HEADER)
+                .status((String) header.get("status"))
+                .aheadBy((Integer) header.get("aheadBy"))
+                .behindBy((Integer) header.get("behindBy"))
+                .totalCommits((Integer) header.get("totalCommits"))
+                .linkedIssueKeys(List.copyOf(linkedKeys))
+                .build();
+    }
+
+    // One record per line, flushed right away so the client can render it
+    private void writeRecord(OutputStream out, CompareStreamRecord record) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(record));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Files are only worked out for the FILES mode
+    private static Object view(CompareResult compareResult, CompareResponseMode mode,
+            Supplier<List<CompareFile>> files) {
+        return switch (mode) {
+            case SUMMARY -> CompareResponse.of(compareResult, null);
+            case FILES -> CompareResponse.of(compareResult, files.get());
+            case FULL -> compareResult;
+        };
+    }
+
+    private static ResponseEntity<Map<String, Object>> invalidMode(String mode) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("error", "Unknown mode '" + mode + "', expected summary, files or full");
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
 }
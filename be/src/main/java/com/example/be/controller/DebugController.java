@@ -1,11 +1,14 @@
 package com.example.be.controller;
 
+import org.springframework.context.annotation.Lazy;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
 
+// Only used while debugging OAuth setups; created on its first request
+@Lazy
 @RestController
 public class DebugController {
 
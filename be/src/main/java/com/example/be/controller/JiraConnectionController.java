@@ -1,31 +1,60 @@
 package com.example.be.controller;
 
 import com.example.be.dto.JiraConnectionRequestDto;
+import com.example.be.dto.JiraIssueDetails;
 import com.example.be.dto.JiraIssueDetailsResponse;
+import com.example.be.dto.JiraIssueSummary;
 import com.example.be.dto.ValidateResponse;
+import com.example.be.security.UserIdentitySession;
 import com.example.be.service.JiraConnectionService;
+import com.example.be.service.JiraIssueSyncService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 @RestController
 @RequestMapping("/jiraConnection")
 @RequiredArgsConstructor
 @Slf4j
 public class JiraConnectionController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final JiraConnectionService jiraConnectionService;
+    private final JiraIssueSyncService jiraIssueSyncService;
+    private final ObjectMapper objectMapper;
+    private final UserIdentitySession userIdentitySession;
+
+    // Keys accepted by one batch lookup; one Jira bulkfetch at the default
+    @Value("${jira.bulk.max-keys:100}")
+    private int maxBulkKeys;
 
     @PostMapping("/save")
     public ResponseEntity<ValidateResponse> saveJiraConnection(
-            @RequestBody JiraConnectionRequestDto jiraConnectionRequestDto) {
+            @RequestBody JiraConnectionRequestDto jiraConnectionRequestDto, HttpServletRequest request) {
         log.info("Received request to save Jira connection: {}", jiraConnectionRequestDto);
         ValidateResponse response = jiraConnectionService.saveJiraConnection(jiraConnectionRequestDto);
+        if (!response.isFailure()) {
+            // jira_connected may have changed
+            userIdentitySession.invalidate(request);
+        }
         log.info("Jira connection saved successfully: {}", response);
         return ResponseEntity.ok(response);
     }
@@ -38,6 +67,28 @@ public class JiraConnectionController {
         return ResponseEntity.ok(tickets);
     }
 
+    /**
+     * Streams every issue of the connection as NDJSON while Jira pages are still being fetched.
+     */
+    @GetMapping("/streamTickets/{connectionId}")
+    public ResponseEntity<StreamingResponseBody> streamTicketsByConnectionId(@PathVariable UUID connectionId) {
+        log.info("Streaming all tickets for Jira connectionId: {}", connectionId);
+        StreamingResponseBody body = out -> writeNdjson(out,
+                consumer -> jiraConnectionService.streamTicketsByConnectionId(connectionId, consumer));
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Typeahead over issue keys and summaries of the connection's synced issues.
+     */
+    @GetMapping("/typeahead/{connectionId}")
+    public ResponseEntity<List<JiraIssueSummary>> typeahead(
+            @PathVariable UUID connectionId,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(jiraConnectionService.searchTickets(connectionId, query, limit));
+    }
+
     @GetMapping("/getTicket/{ticketId}")
     public ResponseEntity<JiraIssueDetailsResponse> getTicketById(
             @PathVariable String ticketId,
@@ -47,6 +98,21 @@ public class JiraConnectionController {
         return ResponseEntity.ok(ticketDetails);
     }
 
+    /**
+     * Details for up to {@code jira.bulk.max-keys} issue keys in one call, keyed by
+     * issue key. Unknown keys are omitted; longer lists are rejected with 400.
+     */
+    @PostMapping("/getTickets/{connectionId}")
+    public ResponseEntity<Map<String, JiraIssueDetails>> getTicketsByKeys(
+            @PathVariable UUID connectionId,
+            @RequestBody List<String> ticketKeys) {
+        if (ticketKeys.size() > maxBulkKeys) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("Fetching {} tickets for connectionId: {}", ticketKeys.size(), connectionId);
+        return ResponseEntity.ok(jiraConnectionService.getTicketsByKeys(connectionId, ticketKeys));
+    }
+
     @GetMapping("/getAllConnections/{userId}")
     public ResponseEntity<Map<String, UUID>> getAllConnectionsByUserId(@PathVariable String userId) {
         log.info("Fetching all connections for Jira connectionId: {}", userId);
@@ -67,6 +133,29 @@ public class JiraConnectionController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/oauth/issues")
+    public ResponseEntity<Map<String, JiraIssueDetails>> getIssuesForCurrentUserOAuth(
+            @RequestBody List<String> ticketKeys,
+            @AuthenticationPrincipal OAuth2User principal) {
+        if (ticketKeys.size() > maxBulkKeys) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String githubId = String.valueOf(principal.getAttribute("id"));
+        log.info("Fetching {} tickets via OAuth for githubId {}", ticketKeys.size(), githubId);
+        return ResponseEntity.ok(jiraConnectionService.getTicketsByKeysUsingOAuth(githubId, ticketKeys));
+    }
+
+    @GetMapping("/oauth/typeahead")
+    public ResponseEntity<List<JiraIssueSummary>> typeaheadForCurrentUserOAuth(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal OAuth2User principal) {
+
+        String githubId = String.valueOf(principal.getAttribute("id"));
+        return ResponseEntity.ok(jiraConnectionService.searchTicketsForUserUsingOAuth(githubId, query, limit));
+    }
+
     @GetMapping("/oauth/allTickets")
     public ResponseEntity<Map<String, String>> getAllTicketsForCurrentUserOAuth(
             @AuthenticationPrincipal OAuth2User principal) {
@@ -77,4 +166,59 @@ public class JiraConnectionController {
                 jiraConnectionService.getAllTicketsForUserUsingOAuth(githubId);
         return ResponseEntity.ok(tickets);
     }
+
+    @GetMapping("/oauth/streamTickets")
+    public ResponseEntity<StreamingResponseBody> streamTicketsForCurrentUserOAuth(
+            @AuthenticationPrincipal OAuth2User principal) {
+
+        String githubId = String.valueOf(principal.getAttribute("id"));
+        log.info("Streaming all tickets via OAuth for githubId {}", githubId);
+        StreamingResponseBody body = out -> writeNdjson(out,
+                consumer -> jiraConnectionService.streamTicketsForUserUsingOAuth(githubId, consumer));
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Jira webhook for issue created/updated/deleted events. Unauthenticated, so
+     * the raw body must carry a valid {@code X-Hub-Signature} HMAC.
+     */
+    @PostMapping("/webhook/{connectionId}")
+    public ResponseEntity<Void> handleWebhook(
+            @PathVariable UUID connectionId,
+            @RequestHeader(value = "X-Hub-Signature", required = false) String signature,
+            @RequestBody String payload) {
+
+        if (!jiraIssueSyncService.verifyWebhookSignature(payload, signature)) {
+            log.warn("Rejected Jira webhook for connection {}: bad or missing signature", connectionId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        JsonNode event = objectMapper.readTree(payload);
+        if (!jiraIssueSyncService.applyWebhook(connectionId, event)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private void writeNdjson(OutputStream out, Consumer<Consumer<JiraIssueSummary>> source) throws IOException {
+        int[] written = {0};
+        try {
+            source.accept(issue -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(issue));
+                    out.write('\n');
+                    // Flush once per Jira page worth of issues so the client sees progress
+                    if (++written[0] % 100 == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        log.info("Streamed {} tickets", written[0]);
+    }
 }
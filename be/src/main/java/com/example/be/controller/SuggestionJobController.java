@@ -0,0 +1,72 @@
+package com.example.be.controller;
+
+import com.example.be.model.SuggestionJob;
+import com.example.be.security.UserIdentitySession;
+import com.example.be.service.SuggestionJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/suggestion-jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionJobController {
+
+    private final SuggestionJobService suggestionJobService;
+    private final UserIdentitySession userIdentitySession;
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable Long jobId, Authentication authentication,
+            HttpServletRequest request) {
+        SuggestionJob job = findOwnedJob(jobId, authentication, request);
+        if (job == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Suggestion job not found");
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", job);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(path = "/{jobId}/events", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable Long jobId, Authentication authentication,
+            HttpServletRequest request) {
+        SuggestionJob job = findOwnedJob(jobId, authentication, request);
+        if (job == null) {
+            return ResponseEntity.status(404).build();
+        }
+        log.info("Client subscribed to suggestion job {}", jobId);
+        return ResponseEntity.ok(suggestionJobService.subscribe(job));
+    }
+
+    // Jobs belong to the GitHub user; a Jira login linked to one sees that user's jobs
+    private SuggestionJob findOwnedJob(Long jobId, Authentication authentication, HttpServletRequest request) {
+        if (!(authentication instanceof OAuth2AuthenticationToken oauthToken)) {
+            return null;
+        }
+        Long userId = userIdentitySession.get(request, oauthToken.getPrincipal()).ownerId();
+        if (userId == null) {
+            return null;
+        }
+
+        return suggestionJobService.findById(jobId)
+                .filter(job -> userId.equals(job.getUserId()))
+                .orElse(null);
+    }
+}
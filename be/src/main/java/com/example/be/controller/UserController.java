@@ -1,15 +1,23 @@
 package com.example.be.controller;
 
+import com.example.be.dto.LoginSyncStatus;
+import com.example.be.dto.UserIdentity;
 import com.example.be.model.User;
+import com.example.be.security.UserIdentitySession;
+import com.example.be.service.LoginSyncTracker;
 import com.example.be.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -21,89 +29,43 @@ public class UserController {
 
     private final UserService userService;
     private final com.example.be.repository.JiraConnectionRepo jiraConnectionRepo;
+    private final UserIdentitySession userIdentitySession;
+    private final LoginSyncTracker loginSyncTracker;
 
+    /**
+     * Served from the identity resolved at login; the ETag lets page loads
+     * revalidate with a 304 instead of downloading it again.
+     */
     @GetMapping("/user")
-    public Map<String, Object> getUser(@AuthenticationPrincipal OAuth2User principal) {
-        log.info("Fetching current authenticated user info");
-        Map<String, Object> response = new java.util.HashMap<>();
-
-        // Determine authentication source
-        Object githubIdObj = principal.getAttribute("id");
-        Object jiraAccountIdObj = principal.getAttribute("account_id");
-
-        String finalName;
-        Object finalAvatarUrl;
-        Object finalId;
-        String finalEmail = principal.getAttribute("email");
-        boolean jiraConnected = false;
-
-        if (jiraAccountIdObj != null) {
-            // Logged in with Jira Principal
-            String jiraAccountId = String.valueOf(jiraAccountIdObj);
-            log.info("Principal is Jira User: {}", jiraAccountId);
-
-            // Check if this Jira account is linked to a GitHub user
-            java.util.Optional<com.example.be.model.JiraConnection> connectionOpt = jiraConnectionRepo
-                    .findByJiraAccountId(jiraAccountId);
-
-            if (connectionOpt.isPresent()) {
-                // LINK FOUND: Mask as GitHub User
-                com.example.be.model.JiraConnection connection = connectionOpt.get();
-                String githubUserId = connection.getUserId();
-                log.info("Found linked GitHub user ID: {}", githubUserId);
-
-                User githubUser = userService.findByProviderId(githubUserId);
-                if (githubUser != null) {
-                    finalName = githubUser.getName();
-                    finalAvatarUrl = githubUser.getAvatarUrl();
-                    finalId = githubUser.getProviderId(); // Use GitHub ID
-                    // Optionally use GitHub email if needed, but session is Jira's
-                    if (githubUser.getEmail() != null)
-                        finalEmail = githubUser.getEmail();
-                    jiraConnected = true;
-                    log.info("Masking identity as GitHub User: {}", finalName);
-                } else {
-                    // Fallback to Jira profile if local user not found
-                    finalName = principal.getAttribute("name");
-                    finalAvatarUrl = principal.getAttribute("picture");
-                    finalId = jiraAccountId;
-                    jiraConnected = true;
-                }
-            } else {
-                // STANDALONE JIRA LOGIN (Not linked)
-                finalName = principal.getAttribute("name");
-                finalAvatarUrl = principal.getAttribute("picture");
-                finalId = jiraAccountId;
-                jiraConnected = true;
-            }
-        } else {
-            // Logged in with GitHub Principal
-            log.info("Principal is GitHub User");
-            String name = principal.getAttribute("name");
-            if (name == null)
-                name = principal.getAttribute("login");
-
-            finalName = name;
-            Object avatar = principal.getAttribute("avatar_url");
-            if (avatar == null)
-                avatar = principal.getAttribute("picture");
-            finalAvatarUrl = avatar;
-            finalId = githubIdObj;
-
-            // Check for Jira connection
-            if (finalId != null) {
-                jiraConnected = !jiraConnectionRepo.findAllByUserId(String.valueOf(finalId)).isEmpty();
-            }
-        }
+    public org.springframework.http.ResponseEntity<Map<String, Object>> getUser(
+            @AuthenticationPrincipal OAuth2User principal, HttpServletRequest request) {
+        UserIdentity identity = userIdentitySession.get(request, principal);
+        // Spring answers 304 itself when If-None-Match matches this ETag
+        return org.springframework.http.ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(identity.etag())
+                .body(identity.toResponse());
+    }
 
-        response.put("name", finalName);
-        response.put("avatar_url", finalAvatarUrl);
-        response.put("email", finalEmail);
-        response.put("id", finalId);
-        response.put("jira_connected", jiraConnected);
+    /**
+     * Progress of the Jira site discovery and cache warming started at login.
+     */
+    @GetMapping("/user/login-sync")
+    public org.springframework.http.ResponseEntity<LoginSyncStatus> getLoginSync(
+            @AuthenticationPrincipal OAuth2User principal, HttpServletRequest request) {
+        String userId = String.valueOf(userIdentitySession.get(request, principal).getId());
+        return loginSyncTracker.status(userId)
+                .map(org.springframework.http.ResponseEntity::ok)
+                .orElseGet(() -> org.springframework.http.ResponseEntity.noContent().build());
+    }
 
-        log.info("User info retrieved: {}, jira_connected: {}", finalName, jiraConnected);
-        return response;
+    /**
+     * Pushes each login sync state change and completes once caches are warm or the sync failed.
+     */
+    @GetMapping(value = "/user/login-sync/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeLoginSync(@AuthenticationPrincipal OAuth2User principal, HttpServletRequest request) {
+        String userId = String.valueOf(userIdentitySession.get(request, principal).getId());
+        return loginSyncTracker.subscribe(userId);
     }
 
     @GetMapping("/user/{providerId}")
@@ -118,8 +80,26 @@ public class UserController {
         return user;
     }
 
+    @org.springframework.web.bind.annotation.PutMapping("/user/preferences/speculative-suggestions")
+    public org.springframework.http.ResponseEntity<Map<String, Object>> setSpeculativeSuggestions(
+            @org.springframework.web.bind.annotation.RequestParam boolean enabled,
+            @AuthenticationPrincipal OAuth2User principal) {
+        if (principal == null || principal.getAttribute("id") == null) {
+            return org.springframework.http.ResponseEntity.status(401).build();
+        }
+
+        String providerId = String.valueOf(principal.getAttribute("id"));
+        log.info("Setting speculative suggestions to {} for user {}", enabled, providerId);
+        User user = userService.updateSpeculativeSuggestions(providerId, enabled);
+
+        Map<String, Object> response = new java.util.HashMap<>();
+        response.put("speculative_suggestions", user.getSpeculativeSuggestions());
+        return org.springframework.http.ResponseEntity.ok(response);
+    }
+
     @org.springframework.web.bind.annotation.DeleteMapping("/jira/disconnect")
-    public org.springframework.http.ResponseEntity<?> disconnectJira(@AuthenticationPrincipal OAuth2User principal) {
+    public org.springframework.http.ResponseEntity<?> disconnectJira(@AuthenticationPrincipal OAuth2User principal,
+            HttpServletRequest request) {
         if (principal == null) {
             return org.springframework.http.ResponseEntity.status(401).build();
         }
@@ -148,6 +128,7 @@ public class UserController {
             return org.springframework.http.ResponseEntity.badRequest().build();
         }
 
+        userIdentitySession.invalidate(request);
         return org.springframework.http.ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,50 @@
+package com.example.be.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompareFile {
+
+    private String filename;
+
+    private String status;
+
+    private String previousFilename;
+
+    // Per-file line counts; only known while the compare comes from GitHub
+    private Integer additions;
+
+    private Integer deletions;
+
+    // Unified diff hunk text; GitHub leaves it out for binary and very large files
+    private String patch;
+
+    // Why the patch was dropped (see DiffIgnoreRules), null for files kept in full
+    private String ignored;
+
+    /**
+     * From one entry of the stored patches JSON (filename, status, patch,
+     * previous_filename) or of GitHub's compare files, which add the counts.
+     */
+    public static CompareFile from(Map<String, Object> file) {
+        return CompareFile.builder()
+                .filename((String) file.get("filename"))
+                .status((String) file.get("status"))
+                .previousFilename((String) file.get("previous_filename"))
+                .additions(file.get("additions") instanceof Number n ? n.intValue() : null)
+                .deletions(file.get("deletions") instanceof Number n ? n.intValue() : null)
+                .patch((String) file.get("patch"))
+                .ignored((String) file.get("ignored"))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.be.dto;
+
+import com.example.be.model.CompareResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compare in the SUMMARY and FILES response modes. Unlike CompareResult it
+ * carries no diff text in summary mode, and the files as real JSON otherwise.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompareResponse {
+
+    private Long id;
+
+    private String owner;
+
+    private String repo;
+
+    private String baseBranch;
+
+    private String headBranch;
+
+    private Integer filesChanged;
+
+    private Integer filesIgnored;
+
+    private Integer additions;
+
+    private Integer deletions;
+
+    private List<String> linkedIssueKeys;
+
+    private Map<String, JiraIssueDetails> linkedIssues;
+
+    private LocalDateTime createdAt;
+
+    // Only in FILES mode
+    private List<CompareFile> files;
+
+    public static CompareResponse of(CompareResult result, List<CompareFile> files) {
+        return CompareResponse.builder()
+                .id(result.getId())
+                .owner(result.getOwner())
+                .repo(result.getRepo())
+                .baseBranch(result.getBaseBranch())
+                .headBranch(result.getHeadBranch())
+                .filesChanged(result.getFilesChanged())
+                .filesIgnored(result.getFilesIgnored())
+                .additions(result.getAdditions())
+                .deletions(result.getDeletions())
+                .linkedIssueKeys(result.getLinkedIssueKeys() == null ? null
+                        : Arrays.asList(result.getLinkedIssueKeys().split(",")))
+                .linkedIssues(result.getLinkedIssues())
+                .createdAt(result.getCreatedAt())
+                .files(files)
+                .build();
+    }
+}
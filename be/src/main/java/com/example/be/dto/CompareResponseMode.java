@@ -0,0 +1,26 @@
+package com.example.be.dto;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * How much of a compare the API returns. SUMMARY is the id, branches and stats;
+ * FILES adds the per-file patches as JSON; FULL is the stored CompareResult as
+ * is, with patches as a JSON string plus the added/deleted line listings.
+ */
+public enum CompareResponseMode {
+    SUMMARY,
+    FILES,
+    FULL;
+
+    public static Optional<CompareResponseMode> parse(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(value.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
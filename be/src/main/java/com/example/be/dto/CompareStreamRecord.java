@@ -0,0 +1,57 @@
+package com.example.be.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One line of the NDJSON compare stream: a {@code header} with the compare
+ * status and linked issue keys, one {@code file} per changed file, then either
+ * {@code complete} with the saved compare or {@code error}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompareStreamRecord {
+
+    public static final String HEADER = "header";
+    public static final String FILE = "file";
+    public static final String COMPLETE = "complete";
+    public static final String ERROR = "error";
+
+    private String type;
+
+    // header
+    private String status;
+    private Integer aheadBy;
+    private Integer behindBy;
+    private Integer totalCommits;
+    private List<String> linkedIssueKeys;
+
+    // file
+    private CompareFile file;
+
+    // complete, in SUMMARY form
+    private CompareResponse compare;
+
+    // error
+    private String error;
+
+    public static CompareStreamRecord file(CompareFile file) {
+        return CompareStreamRecord.builder().type(FILE).file(file).build();
+    }
+
+    public static CompareStreamRecord complete(CompareResponse compare) {
+        return CompareStreamRecord.builder().type(COMPLETE).compare(compare).build();
+    }
+
+    public static CompareStreamRecord error(String error) {
+        return CompareStreamRecord.builder().type(ERROR).error(error).build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.be.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JiraIssueSummary {
+
+    private String id;
+
+    private String key;
+
+    private String summary;
+
+    private String status;
+
+    private String updated;
+}
@@ -0,0 +1,41 @@
+package com.example.be.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the background work started by a login, as pushed to the frontend.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoginSyncStatus {
+
+    public enum State {
+        // Sites and profile are being synced
+        RUNNING,
+        // Connections are saved; Jira pickers work, caches may still be cold
+        READY,
+        // Issue caches and typeahead indexes are built
+        WARM,
+        FAILED
+    }
+
+    private State state;
+
+    // Jira sites linked by this login, null for GitHub logins
+    private Integer sites;
+
+    private String message;
+
+    private LocalDateTime updatedAt;
+
+    public boolean isFinished() {
+        return state == State.WARM || state == State.FAILED;
+    }
+}
@@ -12,4 +12,5 @@ import lombok.NoArgsConstructor;
 public class PRSuggestion {
     private String title;
     private String description;
+    private SuggestionSource source;
 }
@@ -0,0 +1,8 @@
+package com.example.be.dto;
+
+public enum SuggestionSource {
+    LLM,
+    FALLBACK,
+    REUSED,
+    HEURISTIC
+}
@@ -0,0 +1,66 @@
+package com.example.be.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.DigestUtils;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Who the logged-in principal is as far as the frontend is concerned, resolved
+ * once per session and kept as a session attribute (hence serializable for the
+ * JDBC session store).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserIdentity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+
+    private String avatarUrl;
+
+    private String email;
+
+    // GitHub id (numeric) or Jira account id, as the frontend has always received it
+    private Serializable id;
+
+    private boolean jiraConnected;
+
+    /**
+     * The GitHub id records such as compares and suggestion jobs are owned by, or
+     * null for a Jira login that is not linked to a GitHub user.
+     */
+    public Long ownerId() {
+        if (id instanceof Number number) {
+            return number.longValue();
+        }
+        if (id instanceof String text && !text.isEmpty() && text.chars().allMatch(Character::isDigit)) {
+            return Long.valueOf(text);
+        }
+        return null;
+    }
+
+    public Map<String, Object> toResponse() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("name", name);
+        response.put("avatar_url", avatarUrl);
+        response.put("email", email);
+        response.put("id", id);
+        response.put("jira_connected", jiraConnected);
+        return response;
+    }
+
+    public String etag() {
+        String content = name + "\n" + avatarUrl + "\n" + email + "\n" + id + "\n" + jiraConnected;
+        return "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
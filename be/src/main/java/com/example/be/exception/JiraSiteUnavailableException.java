@@ -0,0 +1,25 @@
+package com.example.be.exception;
+
+/**
+ * Thrown without contacting a Jira site whose circuit is open or whose
+ * concurrent request limit is reached.
+ */
+public class JiraSiteUnavailableException extends RuntimeException {
+
+    private final String site;
+    private final long retryAfterSeconds;
+
+    public JiraSiteUnavailableException(String site, String message, long retryAfterSeconds) {
+        super(message);
+        this.site = site;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.be.model;
 
+import com.example.be.dto.JiraIssueDetails;
+import com.example.be.util.DiffFingerprint;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,9 +9,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Entity
-@Table(name = "compare_results")
+@Table(name = "compare_results", indexes = {
+        @Index(name = "idx_compare_results_band0", columnList = "simhash_band0"),
+        @Index(name = "idx_compare_results_band1", columnList = "simhash_band1"),
+        @Index(name = "idx_compare_results_band2", columnList = "simhash_band2"),
+        @Index(name = "idx_compare_results_band3", columnList = "simhash_band3"),
+        @Index(name = "idx_compare_results_band4", columnList = "simhash_band4"),
+        @Index(name = "idx_compare_results_band5", columnList = "simhash_band5"),
+        @Index(name = "idx_compare_results_band6", columnList = "simhash_band6"),
+        @Index(name = "idx_compare_results_band7", columnList = "simhash_band7")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -35,9 +47,39 @@ public class CompareResult {
     private String addedCode;
 
     private Integer filesChanged;
+    // Of filesChanged, those stored without their patch, see DiffIgnoreRules
+    private Integer filesIgnored;
     private Integer additions;
     private Integer deletions;
 
+    // SimHash of the normalized changed lines, see DiffFingerprint
+    private Long diffSimhash;
+
+    @Column(name = "simhash_band0")
+    private Integer simhashBand0;
+    @Column(name = "simhash_band1")
+    private Integer simhashBand1;
+    @Column(name = "simhash_band2")
+    private Integer simhashBand2;
+    @Column(name = "simhash_band3")
+    private Integer simhashBand3;
+    @Column(name = "simhash_band4")
+    private Integer simhashBand4;
+    @Column(name = "simhash_band5")
+    private Integer simhashBand5;
+    @Column(name = "simhash_band6")
+    private Integer simhashBand6;
+    @Column(name = "simhash_band7")
+    private Integer simhashBand7;
+
+    // Jira keys found in the head branch and commit messages, comma separated
+    @Column(length = 1024)
+    private String linkedIssueKeys;
+
+    // Details of the linked issues, only set on the compare response
+    @Transient
+    private Map<String, JiraIssueDetails> linkedIssues;
+
     private LocalDateTime createdAt;
 
     private Long userId;
@@ -45,5 +87,15 @@ public class CompareResult {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (diffSimhash != null) {
+            simhashBand0 = DiffFingerprint.band(diffSimhash, 0);
+            simhashBand1 = DiffFingerprint.band(diffSimhash, 1);
+            simhashBand2 = DiffFingerprint.band(diffSimhash, 2);
+            simhashBand3 = DiffFingerprint.band(diffSimhash, 3);
+            simhashBand4 = DiffFingerprint.band(diffSimhash, 4);
+            simhashBand5 = DiffFingerprint.band(diffSimhash, 5);
+            simhashBand6 = DiffFingerprint.band(diffSimhash, 6);
+            simhashBand7 = DiffFingerprint.band(diffSimhash, 7);
+        }
     }
 }
@@ -42,6 +42,8 @@ public class JiraConnection {
     private String cloudId; // Jira site id from accessible-resources
     private String baseUrl; // e.g. https://your-site.atlassian.net
 
+    // One OAuth grant per (userId, jiraAccountId) covers all of its sites; each of
+    // those connections holds a copy of the grant's tokens, always written together
     @Column(length = 4096)
     private String oauthAccessToken;
     @Column(length = 4096)
@@ -49,6 +51,14 @@ public class JiraConnection {
     @Temporal(TemporalType.TIMESTAMP)
     private Date oauthAccessTokenExpiresAt;
 
+    // Start time of the last completed issue sync into jira_issues
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastIssueSyncAt;
+
+    // Set while a node syncs this connection's issues, so only one node does at a time
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date issueSyncLeaseUntil;
+
     @CreatedDate
     private Date createdAt;
 
@@ -0,0 +1,56 @@
+package com.example.be.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Local copy of a Jira issue, kept per connection and refreshed by
+ * {@code JiraIssueSyncService} and the webhook endpoint.
+ */
+@Entity
+@Table(name = "jira_issues",
+        uniqueConstraints = @UniqueConstraint(name = "uk_jira_issues_connection_key",
+                columnNames = {"connection_id", "issue_key"}),
+        indexes = @Index(name = "idx_jira_issues_connection_issue_id", columnList = "connection_id, issue_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JiraIssue {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "connection_id", nullable = false)
+    private UUID connectionId;
+
+    @Column(name = "issue_id")
+    private String issueId;
+
+    @Column(name = "issue_key", nullable = false)
+    private String issueKey;
+
+    @Column(length = 1024)
+    private String summary;
+
+    private String status;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    // One criterion per line
+    @Column(columnDefinition = "TEXT")
+    private String acceptanceCriteria;
+
+    // "updated" as reported by Jira
+    private String jiraUpdated;
+
+    private LocalDateTime syncedAt;
+}
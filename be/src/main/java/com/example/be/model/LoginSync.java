@@ -0,0 +1,47 @@
+package com.example.be.model;
+
+import com.example.be.dto.LoginSyncStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest login sync status of a user. Stored so that any node can answer the
+ * status endpoint and push changes made by the node that handled the login.
+ */
+@Entity
+@Table(name = "login_syncs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginSync {
+
+    // GitHub or Jira user id, as used for the user's connections
+    @Id
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private LoginSyncStatus.State state;
+
+    private Integer sites;
+
+    @Column(length = 1024)
+    private String message;
+
+    private LocalDateTime updatedAt;
+
+    public LoginSyncStatus toStatus() {
+        return LoginSyncStatus.builder()
+                .state(state)
+                .sites(sites)
+                .message(message)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
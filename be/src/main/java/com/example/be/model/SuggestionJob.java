@@ -0,0 +1,100 @@
+package com.example.be.model;
+
+import com.example.be.dto.SuggestionSource;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A persisted PR suggestion request. Jobs are claimed by any node with
+ * {@code FOR UPDATE SKIP LOCKED}, so they survive restarts and scale with worker count.
+ */
+@Entity
+@Table(name = "suggestion_jobs", indexes = {
+        @Index(name = "idx_suggestion_jobs_status_priority", columnList = "status, priority, created_at"),
+        @Index(name = "idx_suggestion_jobs_compare_id", columnList = "compare_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "compare_id", nullable = false)
+    private Long compareId;
+
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private SuggestionJobStatus status;
+
+    @Column(length = 1024)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private SuggestionSource source;
+
+    @Column(length = 2048)
+    private String error;
+
+    private Integer attempts;
+
+    // A failed job waits until then before it can be claimed again, see SuggestionJobService.fail
+    private LocalDateTime nextAttemptAt;
+
+    // Higher runs first; speculative pre-generation is queued below user requests
+    @Column(name = "priority")
+    private Integer priority;
+
+    private Boolean speculative;
+
+    // Node currently holding the lease and when it was taken
+    private String lockedBy;
+    private LocalDateTime lockedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (status == null) {
+            status = SuggestionJobStatus.PENDING;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+        if (priority == null) {
+            priority = 0;
+        }
+        if (speculative == null) {
+            speculative = false;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == SuggestionJobStatus.SUCCEEDED || status == SuggestionJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.be.model;
+
+public enum SuggestionJobStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
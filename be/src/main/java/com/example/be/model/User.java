@@ -26,4 +26,7 @@ public class User {
     private String avatarUrl;
     
     private String providerId; // GitHub ID
+
+    // Opt-in: start generating a PR suggestion as soon as a compare is saved
+    private Boolean speculativeSuggestions;
 }
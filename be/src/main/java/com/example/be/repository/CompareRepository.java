@@ -2,13 +2,48 @@ package com.example.be.repository;
 
 import com.example.be.model.CompareResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CompareRepository extends JpaRepository<CompareResult, Long> {
     List<CompareResult> findByUserIdOrderByCreatedAtDesc(Long userId);
 
     List<CompareResult> findByOwnerAndRepoOrderByCreatedAtDesc(String owner, String repo);
+
+    // Closest earlier compare with an LLM-written suggestion. The band columns narrow the rows through
+    // their indexes; the distance and the job check run in the database, so no candidate window can
+    // push the match out
+    @Query(value = "SELECT c.id AS id, bit_count(CAST(c.diff_simhash # :fingerprint AS bit(64))) AS distance "
+            + "FROM compare_results c "
+            + "WHERE c.owner = :owner AND c.repo = :repo AND c.id <> :id "
+            + "AND (c.simhash_band0 = :b0 OR c.simhash_band1 = :b1 OR c.simhash_band2 = :b2 OR c.simhash_band3 = :b3 "
+            + "OR c.simhash_band4 = :b4 OR c.simhash_band5 = :b5 OR c.simhash_band6 = :b6 OR c.simhash_band7 = :b7) "
+            + "AND bit_count(CAST(c.diff_simhash # :fingerprint AS bit(64))) <= :maxDistance "
+            + "AND EXISTS (SELECT 1 FROM suggestion_jobs j WHERE j.compare_id = c.id "
+            + "AND j.status = 'SUCCEEDED' AND j.source = 'LLM') "
+            + "ORDER BY distance, c.created_at DESC LIMIT 1", nativeQuery = true)
+    Optional<FingerprintView> findNearestWithLlmSuggestion(@Param("owner") String owner,
+            @Param("repo") String repo,
+            @Param("id") Long id,
+            @Param("fingerprint") Long fingerprint,
+            @Param("maxDistance") int maxDistance,
+            @Param("b0") Integer b0,
+            @Param("b1") Integer b1,
+            @Param("b2") Integer b2,
+            @Param("b3") Integer b3,
+            @Param("b4") Integer b4,
+            @Param("b5") Integer b5,
+            @Param("b6") Integer b6,
+            @Param("b7") Integer b7);
+
+    interface FingerprintView {
+        Long getId();
+
+        Long getDistance();
+    }
 }
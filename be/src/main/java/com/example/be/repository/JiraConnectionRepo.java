@@ -3,6 +3,7 @@ package com.example.be.repository;
 import com.example.be.model.JiraConnection;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,8 +20,70 @@ public interface JiraConnectionRepo extends JpaRepository<JiraConnection, UUID>
     // Optional: at most one OAuth connection per (user, cloudId)
     Optional<JiraConnection> findByUserIdAndCloudId(String userId, String cloudId);
 
-    Optional<JiraConnection> findByJiraAccountId(String jiraAccountId);
+    // One Jira account has a connection per accessible site
+    Optional<JiraConnection> findFirstByJiraAccountId(String jiraAccountId);
 
     @org.springframework.transaction.annotation.Transactional
     void deleteByJiraAccountId(String jiraAccountId);
+
+    // Touches only the sync marker so concurrent token updates are not overwritten
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE JiraConnection c SET c.lastIssueSyncAt = :syncedAt WHERE c.id = :id")
+    int updateLastIssueSyncAt(@org.springframework.data.repository.query.Param("id") UUID id,
+            @org.springframework.data.repository.query.Param("syncedAt") Date syncedAt);
+
+    // Claims the issue sync for one node; fails while another node's lease is still running
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE JiraConnection c SET c.issueSyncLeaseUntil = :until "
+            + "WHERE c.id = :id AND (c.issueSyncLeaseUntil IS NULL OR c.issueSyncLeaseUntil < :now)")
+    int claimIssueSync(@org.springframework.data.repository.query.Param("id") UUID id,
+            @org.springframework.data.repository.query.Param("now") Date now,
+            @org.springframework.data.repository.query.Param("until") Date until);
+
+    // Releases only the lease this node took, not one another node claimed after it expired
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE JiraConnection c SET c.issueSyncLeaseUntil = null "
+            + "WHERE c.id = :id AND c.issueSyncLeaseUntil = :until")
+    int releaseIssueSync(@org.springframework.data.repository.query.Param("id") UUID id,
+            @org.springframework.data.repository.query.Param("until") Date until);
+
+    // OAuth connections whose access token expires before the cutoff and can be refreshed
+    List<JiraConnection> findAllByOauthRefreshTokenIsNotNullAndOauthAccessTokenExpiresAtBefore(Date cutoff);
+
+    // Every site connection of one Atlassian grant, which share its tokens, with SELECT ... FOR UPDATE
+    // in id order so concurrent refreshes cannot deadlock
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT c FROM JiraConnection c "
+            + "WHERE c.userId = :userId AND c.jiraAccountId = :jiraAccountId ORDER BY c.id")
+    List<JiraConnection> lockGrant(@org.springframework.data.repository.query.Param("userId") String userId,
+            @org.springframework.data.repository.query.Param("jiraAccountId") String jiraAccountId);
+
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT c FROM JiraConnection c WHERE c.id = :id")
+    Optional<JiraConnection> lockById(@org.springframework.data.repository.query.Param("id") UUID id);
+
+    // Writes only the token columns so a refresh does not clobber other fields
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE JiraConnection c SET c.oauthAccessToken = :accessToken, "
+            + "c.oauthRefreshToken = :refreshToken, c.oauthAccessTokenExpiresAt = :expiresAt WHERE c.id = :id")
+    int updateOAuthTokens(@org.springframework.data.repository.query.Param("id") UUID id,
+            @org.springframework.data.repository.query.Param("accessToken") String accessToken,
+            @org.springframework.data.repository.query.Param("refreshToken") String refreshToken,
+            @org.springframework.data.repository.query.Param("expiresAt") Date expiresAt);
+
+    // Writes the tokens of one grant to all of its site connections at once
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE JiraConnection c SET c.oauthAccessToken = :accessToken, "
+            + "c.oauthRefreshToken = :refreshToken, c.oauthAccessTokenExpiresAt = :expiresAt "
+            + "WHERE c.userId = :userId AND c.jiraAccountId = :jiraAccountId")
+    int updateGrantTokens(@org.springframework.data.repository.query.Param("userId") String userId,
+            @org.springframework.data.repository.query.Param("jiraAccountId") String jiraAccountId,
+            @org.springframework.data.repository.query.Param("accessToken") String accessToken,
+            @org.springframework.data.repository.query.Param("refreshToken") String refreshToken,
+            @org.springframework.data.repository.query.Param("expiresAt") Date expiresAt);
 }
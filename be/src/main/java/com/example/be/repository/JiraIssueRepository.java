@@ -0,0 +1,49 @@
+package com.example.be.repository;
+
+import com.example.be.model.JiraIssue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface JiraIssueRepository extends JpaRepository<JiraIssue, Long> {
+
+    Optional<JiraIssue> findByConnectionIdAndIssueKey(UUID connectionId, String issueKey);
+
+    Optional<JiraIssue> findByConnectionIdAndIssueId(UUID connectionId, String issueId);
+
+    List<JiraIssue> findAllByConnectionIdAndIssueKeyIn(UUID connectionId, Collection<String> issueKeys);
+
+    List<IssueKeyView> findAllByConnectionId(UUID connectionId);
+
+    List<TypeaheadView> findTypeaheadByConnectionId(UUID connectionId);
+
+    @Transactional
+    void deleteByConnectionIdAndIssueKey(UUID connectionId, String issueKey);
+
+    @Transactional
+    void deleteByConnectionIdAndIssueId(UUID connectionId, String issueId);
+
+    // Listing only needs id and key, so skip the description columns
+    interface IssueKeyView {
+        String getIssueId();
+
+        String getIssueKey();
+    }
+
+    // What the typeahead index keeps per issue
+    interface TypeaheadView {
+        String getIssueId();
+
+        String getIssueKey();
+
+        String getSummary();
+
+        String getStatus();
+
+        String getJiraUpdated();
+    }
+}
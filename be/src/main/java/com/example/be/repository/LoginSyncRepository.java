@@ -0,0 +1,7 @@
+package com.example.be.repository;
+
+import com.example.be.model.LoginSync;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LoginSyncRepository extends JpaRepository<LoginSync, String> {
+}
@@ -0,0 +1,74 @@
+package com.example.be.repository;
+
+import com.example.be.dto.PRSuggestion;
+import com.example.be.dto.SuggestionSource;
+import com.example.be.model.SuggestionJob;
+import com.example.be.model.SuggestionJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SuggestionJobRepository extends JpaRepository<SuggestionJob, Long> {
+
+    // Rows locked by another node's open transaction are skipped rather than waited on; retries
+    // only once their back-off has passed
+    @Query(value = "SELECT * FROM suggestion_jobs WHERE status = 'PENDING' "
+            + "AND (next_attempt_at IS NULL OR next_attempt_at <= :now) "
+            + "ORDER BY priority DESC, created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SuggestionJob> lockNextPending(@Param("limit") int limit, @Param("now") LocalDateTime now);
+
+    Optional<SuggestionJob> findFirstByCompareIdAndStatusInOrderByCreatedAtDesc(
+            Long compareId, Collection<SuggestionJobStatus> statuses);
+
+    // Scalar/DTO reads always hit the database, even inside an open persistence context
+    @Query("SELECT j.status FROM SuggestionJob j WHERE j.id = :id")
+    SuggestionJobStatus findStatusById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.be.dto.PRSuggestion(j.title, j.description, j.source) "
+            + "FROM SuggestionJob j WHERE j.id = :id")
+    Optional<PRSuggestion> findSuggestionById(@Param("id") Long id);
+
+    Optional<SuggestionJob> findFirstByCompareIdAndStatusAndSourceInOrderByCompletedAtDesc(
+            Long compareId, SuggestionJobStatus status, Collection<SuggestionSource> sources);
+
+    Optional<SuggestionJob> findFirstByCompareIdAndStatusAndSourceOrderByCompletedAtDesc(
+            Long compareId, SuggestionJobStatus status, SuggestionSource source);
+
+    long countBySpeculativeTrueAndCreatedAtAfter(LocalDateTime after);
+
+    long countByUserIdAndSpeculativeTrueAndCreatedAtAfter(Long userId, LocalDateTime after);
+
+    List<SuggestionJob> findByIdInAndStatusIn(Collection<Long> ids, Collection<SuggestionJobStatus> statuses);
+
+    // Field-level update so a worker holding the row is not overwritten
+    @Modifying
+    @Transactional
+    @Query("UPDATE SuggestionJob j SET j.priority = :priority, j.speculative = false WHERE j.id = :id")
+    int promote(@Param("id") Long id, @Param("priority") int priority);
+
+    @Modifying
+    @Query("UPDATE SuggestionJob j SET j.status = :pending, j.lockedBy = null, j.lockedAt = null "
+            + "WHERE j.status = :running AND j.lockedAt < :cutoff AND j.attempts < :maxAttempts")
+    int releaseExpiredLeases(@Param("pending") SuggestionJobStatus pending,
+            @Param("running") SuggestionJobStatus running,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE SuggestionJob j SET j.status = :failed, j.error = 'Lease expired too many times', "
+            + "j.completedAt = :now WHERE j.status = :running AND j.lockedAt < :cutoff AND j.attempts >= :maxAttempts")
+    int failExpiredLeases(@Param("failed") SuggestionJobStatus failed,
+            @Param("running") SuggestionJobStatus running,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("maxAttempts") int maxAttempts,
+            @Param("now") LocalDateTime now);
+}
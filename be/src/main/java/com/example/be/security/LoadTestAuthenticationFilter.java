@@ -0,0 +1,108 @@
+package com.example.be.security;
+
+import com.example.be.model.User;
+import com.example.be.repository.UserRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signs requests of the load-test driver in as GitHub users without the OAuth
+ * round trip. A numeric {@code X-Load-Test-User} header becomes the GitHub id;
+ * the user row and an authorized client with a dummy token are created on first
+ * use, so controllers see exactly what a real login leaves behind. Only
+ * registered under the {@code loadtest} profile.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Load-Test-User";
+
+    private static final String REGISTRATION_ID = "github";
+
+    private final UserRepository userRepository;
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final OAuth2AuthorizedClientService authorizedClientService;
+
+    private final Set<Long> provisioned = ConcurrentHashMap.newKeySet();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER);
+        if (header == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long githubId;
+        try {
+            githubId = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, HEADER + " must be a numeric GitHub id");
+            return;
+        }
+
+        OAuth2User principal = new DefaultOAuth2User(
+                AuthorityUtils.createAuthorityList("OAUTH2_USER"),
+                Map.of("id", githubId, "login", "loadtest-" + githubId, "name", "Load Test " + githubId),
+                "id");
+        OAuth2AuthenticationToken authentication =
+                new OAuth2AuthenticationToken(principal, principal.getAuthorities(), REGISTRATION_ID);
+        if (provisioned.add(githubId)) {
+            provision(githubId, authentication);
+        }
+
+        // Not saved to the session: every driver request carries the header
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void provision(long githubId, OAuth2AuthenticationToken authentication) {
+        String providerId = String.valueOf(githubId);
+        if (userRepository.findByProviderId(providerId).isEmpty()) {
+            userRepository.save(User.builder()
+                    .providerId(providerId)
+                    .name("Load Test " + githubId)
+                    .speculativeSuggestions(false)
+                    .build());
+            log.info("Created load-test user {}", providerId);
+        }
+
+        ClientRegistration registration = clientRegistrationRepository.findByRegistrationId(REGISTRATION_ID);
+        Instant now = Instant.now();
+        OAuth2AccessToken token = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "loadtest-" + githubId, now, now.plus(365, ChronoUnit.DAYS));
+        authorizedClientService.saveAuthorizedClient(
+                new OAuth2AuthorizedClient(registration, authentication.getName(), token), authentication);
+    }
+}
@@ -1,17 +1,12 @@
 package com.example.be.security;
 
-import com.example.be.model.JiraConnection;
 import com.example.be.model.User;
-import com.example.be.repository.JiraConnectionRepo;
 import com.example.be.repository.UserRepository;
-import tools.jackson.databind.JsonNode;
+import com.example.be.service.LoginSyncService;
+import com.example.be.service.UserService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
@@ -19,30 +14,30 @@ import org.springframework.security.oauth2.client.authentication.OAuth2Authentic
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.SavedRequestAwareAuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
 import java.time.Instant;
-import java.util.Date;
 import java.util.Map;
-import java.util.UUID;
 
 @Component
 public class OAuth2LoginSuccessHandler extends SavedRequestAwareAuthenticationSuccessHandler {
 
     private final UserRepository userRepository;
-    private final JiraConnectionRepo jiraConnectionRepo;
     private final OAuth2AuthorizedClientService authorizedClientService;
-    private final RestTemplate restTemplate;
+    private final UserService userService;
+    private final UserIdentitySession userIdentitySession;
+    private final LoginSyncService loginSyncService;
 
     public OAuth2LoginSuccessHandler(UserRepository userRepository,
-            JiraConnectionRepo jiraConnectionRepo,
             OAuth2AuthorizedClientService authorizedClientService,
-            RestTemplate restTemplate) {
+            UserService userService,
+            UserIdentitySession userIdentitySession,
+            LoginSyncService loginSyncService) {
         this.userRepository = userRepository;
-        this.jiraConnectionRepo = jiraConnectionRepo;
         this.authorizedClientService = authorizedClientService;
-        this.restTemplate = restTemplate;
+        this.userService = userService;
+        this.userIdentitySession = userIdentitySession;
+        this.loginSyncService = loginSyncService;
     }
 
     @Override
@@ -57,8 +52,10 @@ public class OAuth2LoginSuccessHandler extends SavedRequestAwareAuthenticationSu
         OAuth2User oauth2User = oauthToken.getPrincipal();
         Map<String, Object> attributes = oauth2User.getAttributes();
 
+        // Only what the session needs is saved here; the rest runs in LoginSyncService
         if ("github".equals(registrationId)) {
             handleGithubLogin(attributes, request);
+            userIdentitySession.refresh(request, oauth2User);
         } else if ("jira".equals(registrationId)) {
             handleJiraLogin(oauthToken, oauth2User, request);
         }
@@ -76,18 +73,16 @@ public class OAuth2LoginSuccessHandler extends SavedRequestAwareAuthenticationSu
             name = (String) attributes.get("login");
         }
 
-        User user = userRepository.findByProviderId(providerId)
-                .orElseGet(() -> User.builder()
-                        .providerId(providerId)
-                        .email(email)
-                        .build());
-
-        user.setName(name);
-        user.setAvatarUrl(avatarUrl);
-        if (email != null) {
-            user.setEmail(email);
+        if (userRepository.findByProviderId(providerId).isEmpty()) {
+            userRepository.save(User.builder()
+                    .providerId(providerId)
+                    .email(email)
+                    .name(name)
+                    .avatarUrl(avatarUrl)
+                    .build());
         }
-        userRepository.save(user);
+        // Profile changes of existing users are saved in the background
+        loginSyncService.startGithubSync(providerId, name, email, avatarUrl);
 
         // store github id in session so we can link Jira login to this user
         request.getSession().setAttribute("github_id", providerId);
@@ -136,7 +131,15 @@ public class OAuth2LoginSuccessHandler extends SavedRequestAwareAuthenticationSu
             }
         }
 
-        // 3. Fetch Accessible Resources (Cloud ID)
+        // 3. Identity for /api/user. A GitHub user linking Jira keeps their identity;
+        // their link is only saved by the background sync, so it is not resolved from it.
+        if (githubId != null) {
+            userIdentitySession.store(request, userService.identityOf(user, true));
+        } else {
+            userIdentitySession.refresh(request, oauth2User);
+        }
+
+        // 4. Site discovery and connection upserts run in the background
         OAuth2AuthorizedClient authorizedClient = authorizedClientService.loadAuthorizedClient(
                 oauthToken.getAuthorizedClientRegistrationId(),
                 oauth2User.getName());
@@ -147,42 +150,7 @@ public class OAuth2LoginSuccessHandler extends SavedRequestAwareAuthenticationSu
                 ? authorizedClient.getRefreshToken().getTokenValue()
                 : null;
 
-        String resourcesUrl = "https://api.atlassian.com/oauth/token/accessible-resources";
-        org.springframework.http.HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(accessToken);
-        headers.set("Accept", "application/json");
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-        ResponseEntity<JsonNode> resourcesResponse = restTemplate.exchange(
-                resourcesUrl, HttpMethod.GET, entity, JsonNode.class);
-
-        JsonNode resources = resourcesResponse.getBody();
-        if (resources == null || !resources.isArray() || resources.isEmpty()) {
-            throw new IllegalStateException("No accessible Jira resources found for user");
-        }
-
-        JsonNode site = resources.get(0); // Default to first available site
-        String cloudId = site.get("id").asText();
-        String baseUrl = site.get("url").asText();
-
-        // 4. Create/Update Linkage
-        JiraConnection connection = jiraConnectionRepo
-                .findByUserIdAndCloudId(user.getProviderId(), cloudId)
-                .orElse(JiraConnection.builder()
-                        .id(UUID.randomUUID())
-                        .userId(user.getProviderId())
-                        .name("Jira OAuth " + cloudId)
-                        .build());
-
-        connection.setJiraAccountId(jiraAccountId);
-        connection.setJiraEmail(jiraEmail);
-        connection.setCloudId(cloudId);
-        connection.setBaseUrl(baseUrl);
-        connection.setOauthAccessToken(accessToken);
-        connection.setOauthRefreshToken(refreshToken);
-        connection.setOauthAccessTokenExpiresAt(
-                expiresAt != null ? Date.from(expiresAt) : null);
-
-        jiraConnectionRepo.save(connection);
+        loginSyncService.startJiraSync(user.getProviderId(), jiraAccountId, jiraEmail,
+                accessToken, refreshToken, expiresAt);
     }
 }
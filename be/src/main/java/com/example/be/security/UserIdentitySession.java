@@ -0,0 +1,52 @@
+package com.example.be.security;
+
+import com.example.be.dto.UserIdentity;
+import com.example.be.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the resolved {@link UserIdentity} in the HTTP session so that
+ * {@code /api/user} does not hit the database on every page load. It is stored
+ * at login and dropped whenever the user's Jira connections change; the next
+ * read resolves it again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserIdentitySession {
+
+    static final String ATTRIBUTE = "prforge.user_identity";
+
+    private final UserService userService;
+
+    public UserIdentity get(HttpServletRequest request, OAuth2User principal) {
+        HttpSession session = request.getSession(false);
+        if (session != null && session.getAttribute(ATTRIBUTE) instanceof UserIdentity identity) {
+            return identity;
+        }
+        return refresh(request, principal);
+    }
+
+    public UserIdentity refresh(HttpServletRequest request, OAuth2User principal) {
+        UserIdentity identity = userService.resolveIdentity(principal);
+        store(request, identity);
+        return identity;
+    }
+
+    public void store(HttpServletRequest request, UserIdentity identity) {
+        request.getSession().setAttribute(ATTRIBUTE, identity);
+        log.info("Resolved identity for session: {}, jira_connected: {}", identity.getName(), identity.isJiraConnected());
+    }
+
+    public void invalidate(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.removeAttribute(ATTRIBUTE);
+        }
+    }
+}
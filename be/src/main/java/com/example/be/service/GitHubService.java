@@ -1,108 +1,327 @@
 package com.example.be.service;
 
+import com.example.be.config.CompareIgnoreProperties;
+import com.example.be.dto.CompareFile;
+import com.example.be.util.DiffIgnoreRules;
+import com.example.be.util.RequestTiming;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Service
 public class GitHubService {
 
     @Autowired
+    @Qualifier("githubWebClient")
     private WebClient webClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Everything is kept until the compare.ignore settings are injected, e.g. in the benchmarks
+    private DiffIgnoreRules ignoreRules = DiffIgnoreRules.NONE;
+
+    @Autowired
+    void setIgnoreRules(CompareIgnoreProperties properties) {
+        ignoreRules = properties.isEnabled()
+                ? new DiffIgnoreRules(properties.getGlobs(), properties.getMaxPatchSize().toBytes(),
+                        properties.isDetectGenerated())
+                : DiffIgnoreRules.NONE;
+    }
+
     @SuppressWarnings("unchecked")
     public Map<String, Object> compareCommits(String owner, String repo, String baseBranch, String headBranch,
             String token) {
         String basehead = baseBranch + "..." + headBranch;
 
+        long start = System.nanoTime();
+        String outcome = "error";
         try {
-            Map<String, Object> response = webClient.get()
+            // Read as bytes so the payload size can be recorded
+            byte[] body = webClient.get()
                     .uri("/repos/{owner}/{repo}/compare/{basehead}", owner, repo, basehead)
                     .header("Authorization", "Bearer " + token)
                     .retrieve()
-                    .bodyToMono(Map.class)
+                    .bodyToMono(byte[].class)
                     .block();
+            outcome = "success";
+            recordCompare(start, outcome);
+            // Decoding and patch extraction, as one phase of the request's Server-Timing
+            try (RequestTiming.Span diff = RequestTiming.start("diff")) {
+                Map<String, Object> response = null;
+                if (body != null) {
+                    DistributionSummary.builder("prforge.github.compare.payload")
+                            .description("GitHub compare response size")
+                            .baseUnit("bytes")
+                            .register(meterRegistry)
+                            .record(body.length);
+                    response = objectMapper.readValue(body, Map.class);
+                }
 
-            Map<String, Object> result = new HashMap<>();
+                Map<String, Object> result = new HashMap<>();
+
+                if (response != null) {
+                    // Extract statistics
+                    List<Map<String, Object>> files = (List<Map<String, Object>>) response.get("files");
+                    result.put("filesChanged", files != null ? files.size() : 0);
 
-            if (response != null) {
-                // Extract statistics
-                List<Map<String, Object>> files = (List<Map<String, Object>>) response.get("files");
-                result.put("filesChanged", files != null ? files.size() : 0);
-                result.put("additions", response.get("total_additions") != null ? response.get("total_additions") : 0);
-                result.put("deletions", response.get("total_deletions") != null ? response.get("total_deletions") : 0);
-
-                // Process files - extract only filename, status, and patch
-                if (files != null) {
-                    List<Map<String, Object>> simplifiedFiles = new java.util.ArrayList<>();
-                    StringBuilder deletedCode = new StringBuilder();
-                    StringBuilder addedCode = new StringBuilder();
-
-                    for (Map<String, Object> file : files) {
-                        // Create simplified file object with only needed fields
-                        Map<String, Object> simplifiedFile = new HashMap<>();
-                        simplifiedFile.put("filename", file.get("filename"));
-                        simplifiedFile.put("status", file.get("status"));
-                        simplifiedFile.put("patch", file.get("patch"));
-                        simplifiedFiles.add(simplifiedFile);
-
-                        // Parse patch to extract deleted and added lines
-                        String patch = (String) file.get("patch");
-                        if (patch != null) {
-                            String filename = (String) file.get("filename");
-                            String[] lines = patch.split("\\n");
-
-                            for (String line : lines) {
-                                if (line.startsWith("-") && !line.startsWith("---")) {
-                                    // Deleted line
-                                    deletedCode.append(filename).append(": ").append(line.substring(1)).append("\\n");
-                                } else if (line.startsWith("+") && !line.startsWith("+++")) {
-                                    // Added line
-                                    addedCode.append(filename).append(": ").append(line.substring(1)).append("\\n");
-                                }
+                    // Commit messages are scanned for Jira keys
+                    List<Map<String, Object>> commits = (List<Map<String, Object>>) response.get("commits");
+                    List<String> commitMessages = new java.util.ArrayList<>();
+                    if (commits != null) {
+                        for (Map<String, Object> commit : commits) {
+                            Map<String, Object> details = (Map<String, Object>) commit.get("commit");
+                            if (details != null && details.get("message") != null) {
+                                commitMessages.add((String) details.get("message"));
                             }
                         }
                     }
+                    result.put("commitMessages", commitMessages);
 
-                    // Store simplified patches as JSON
-                    try {
-                        com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                        result.put("patches", mapper.writeValueAsString(simplifiedFiles));
-                        result.put("deletedCode", deletedCode.toString());
-                        result.put("addedCode", addedCode.toString());
-                    } catch (Exception e) {
-                        result.put("patches", "[]");
-                        result.put("deletedCode", "");
-                        result.put("addedCode", "");
-                    }
+                    // Process files - extract only filename, status, and patch
+                    Timer.Sample parse = Timer.start(meterRegistry);
+                    extractPatches(files, result);
+                    parse.stop(Timer.builder("prforge.diff.parse")
+                            .description("Splitting compare files into patches, changed lines and fingerprint")
+                            .register(meterRegistry));
+                    DistributionSummary.builder("prforge.github.compare.files")
+                            .description("Files per GitHub compare")
+                            .register(meterRegistry)
+                            .record(files != null ? files.size() : 0);
+
+                    result.put("success", true);
                 } else {
-                    result.put("patches", "[]");
-                    result.put("deletedCode", "");
-                    result.put("addedCode", "");
+                    result.put("success", false);
+                    result.put("error", "No response from GitHub API");
                 }
 
-                result.put("success", true);
-            } else {
-                result.put("success", false);
-                result.put("error", "No response from GitHub API");
+                return result;
             }
+        } catch (WebClientResponseException e) {
+            recordCompare(start, e.getStatusCode().is5xxServerError() ? "server_error" : "client_error");
+            Map<String, Object> errorResult = new HashMap<>();
+            errorResult.put("success", false);
+            errorResult.put("error", e.getStatusCode() + " " + e.getStatusText() + " from " + e.getRequest().getURI());
+            return errorResult;
+        } catch (Exception e) {
+            if (!"success".equals(outcome)) {
+                recordCompare(start, outcome);
+            }
+            Map<String, Object> errorResult = new HashMap<>();
+            errorResult.put("success", false);
+            errorResult.put("error", e.getMessage());
+            return errorResult;
+        }
+    }
+
+    /**
+     * Splits compare files into the stored patches JSON, the added/deleted line
+     * listings used by the prompt and the diff fingerprint, and sums the files'
+     * additions and deletions. Package-private for the benchmarks in the bench module.
+     */
+    void extractPatches(List<Map<String, Object>> files, Map<String, Object> result) {
+        if (files != null) {
+            List<Map<String, Object>> simplifiedFiles = new java.util.ArrayList<>();
+            PatchAccumulator patches = new PatchAccumulator();
+
+            for (Map<String, Object> file : files) {
+                // Create simplified file object with only needed fields
+                Map<String, Object> simplifiedFile = new HashMap<>();
+                simplifiedFile.put("filename", file.get("filename"));
+                simplifiedFile.put("status", file.get("status"));
+                if (file.get("previous_filename") != null) {
+                    simplifiedFile.put("previous_filename", file.get("previous_filename"));
+                }
+                simplifiedFiles.add(simplifiedFile);
+                patches.count(file.get("additions") instanceof Number n ? n.intValue() : null,
+                        file.get("deletions") instanceof Number n ? n.intValue() : null);
 
+                // Ignored files are decided on before the patch is split into lines
+                String ignored = ignoreRules.match((String) file.get("filename"), (String) file.get("patch"));
+                if (ignored != null) {
+                    simplifiedFile.put("patch", null);
+                    simplifiedFile.put("ignored", ignored);
+                    patches.ignore((String) file.get("filename"), (String) file.get("status"),
+                            (String) file.get("previous_filename"), ignored);
+                } else {
+                    simplifiedFile.put("patch", file.get("patch"));
+                    patches.add((String) file.get("filename"), (String) file.get("status"),
+                            (String) file.get("previous_filename"), (String) file.get("patch"));
+                }
+            }
+
+            patches.finish(result);
+            result.put("files", simplifiedFiles);
+        } else {
+            result.put("patches", "[]");
+            result.put("deletedCode", "");
+            result.put("addedCode", "");
+            result.put("additions", 0);
+            result.put("deletions", 0);
+        }
+    }
+
+    /**
+     * Compare that reads GitHub's response as it arrives instead of buffering it.
+     * {@code onHeader} gets status, aheadBy, behindBy, totalCommits and
+     * commitMessages once the commits are read; {@code onFile} gets each file as
+     * soon as it is parsed. Only the stored outputs grow with the diff, no copy of
+     * the response or its files is kept. The result has the same keys as
+     * {@link #compareCommits} apart from files. Exceptions thrown by the callbacks are passed on.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> streamCompare(String owner, String repo, String baseBranch, String headBranch,
+            String token, Consumer<Map<String, Object>> onHeader, Consumer<CompareFile> onFile) {
+        String basehead = baseBranch + "..." + headBranch;
+        AtomicLong payload = new AtomicLong();
+        Flux<DataBuffer> body = webClient.get()
+                .uri("/repos/{owner}/{repo}/compare/{basehead}", owner, repo, basehead)
+                .header("Authorization", "Bearer " + token)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .doOnNext(buffer -> payload.addAndGet(buffer.readableByteCount()));
+
+        long start = System.nanoTime();
+        Map<String, Object> header = new HashMap<>();
+        List<String> commitMessages = new java.util.ArrayList<>();
+        PatchAccumulator patches = new PatchAccumulator();
+        boolean headerSent = false;
+
+        try (InputStream in = DataBufferUtils.subscriberInputStream(body, 4);
+                JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object from GitHub");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "status" -> header.put("status", parser.getValueAsString());
+                    case "ahead_by" -> header.put("aheadBy", parser.getValueAsInt());
+                    case "behind_by" -> header.put("behindBy", parser.getValueAsInt());
+                    case "total_commits" -> header.put("totalCommits", parser.getValueAsInt());
+                    case "commits" -> {
+                        // One commit in memory at a time; only the messages are kept
+                        while (value == JsonToken.START_ARRAY && parser.nextToken() == JsonToken.START_OBJECT) {
+                            JsonNode commit = objectMapper.readTree(parser);
+                            JsonNode message = commit.path("commit").path("message");
+                            if (message.isTextual()) {
+                                commitMessages.add(message.asText());
+                            }
+                        }
+                        parser.skipChildren();
+                    }
+                    case "files" -> {
+                        if (!headerSent) {
+                            header.put("commitMessages", commitMessages);
+                            onHeader.accept(header);
+                            headerSent = true;
+                        }
+                        while (value == JsonToken.START_ARRAY && parser.nextToken() == JsonToken.START_OBJECT) {
+                            CompareFile file = CompareFile.from(objectMapper.readValue(parser, Map.class));
+                            String ignored = ignoreRules.match(file.getFilename(), file.getPatch());
+                            if (ignored != null) {
+                                file.setPatch(null);
+                                file.setIgnored(ignored);
+                                patches.ignore(file.getFilename(), file.getStatus(), file.getPreviousFilename(),
+                                        ignored);
+                            } else {
+                                patches.add(file.getFilename(), file.getStatus(), file.getPreviousFilename(),
+                                        file.getPatch());
+                            }
+                            patches.count(file.getAdditions(), file.getDeletions());
+                            onFile.accept(file);
+                        }
+                        parser.skipChildren();
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            if (!headerSent) {
+                header.put("commitMessages", commitMessages);
+                onHeader.accept(header);
+            }
+            recordCompare(start, "success");
+            DistributionSummary.builder("prforge.github.compare.payload")
+                    .description("GitHub compare response size")
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .record(payload.get());
+            DistributionSummary.builder("prforge.github.compare.files")
+                    .description("Files per GitHub compare")
+                    .register(meterRegistry)
+                    .record(patches.files());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("filesChanged", patches.files());
+            result.put("commitMessages", commitMessages);
+            patches.finish(result);
             return result;
         } catch (WebClientResponseException e) {
+            recordCompare(start, e.getStatusCode().is5xxServerError() ? "server_error" : "client_error");
             Map<String, Object> errorResult = new HashMap<>();
             errorResult.put("success", false);
             errorResult.put("error", e.getStatusCode() + " " + e.getStatusText() + " from " + e.getRequest().getURI());
             return errorResult;
-        } catch (Exception e) {
+        } catch (WebClientException | IOException e) {
+            recordCompare(start, "error");
             Map<String, Object> errorResult = new HashMap<>();
             errorResult.put("success", false);
             errorResult.put("error", e.getMessage());
             return errorResult;
         }
     }
+
+    /**
+     * Reads the stored patches JSON back into per-file entries; an unreadable or
+     * missing value gives no files.
+     */
+    public List<CompareFile> parsePatches(String patches) {
+        if (patches == null || patches.isEmpty()) {
+            return List.of();
+        }
+        try {
+            List<Map<String, Object>> files = objectMapper.readValue(patches, new TypeReference<>() {
+            });
+            return files.stream().map(CompareFile::from).toList();
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+
+    private void recordCompare(long start, String outcome) {
+        long nanos = System.nanoTime() - start;
+        Timer.builder("prforge.github.compare")
+                .description("GitHub compare API latency")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        RequestTiming.record("github", nanos);
+    }
 }
@@ -3,13 +3,18 @@ package com.example.be.service;
 import com.example.be.dto.JiraConnectionRequestDto;
 import com.example.be.dto.JiraIssueDetails;
 import com.example.be.dto.JiraIssueDetailsResponse;
+import com.example.be.dto.JiraIssueSummary;
 import com.example.be.dto.ValidateResponse;
 import org.springframework.stereotype.Service;
 
 
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 public interface JiraConnectionService {
@@ -18,12 +23,28 @@ public interface JiraConnectionService {
 
     Map<String, String> getAllTicketsByConnectionId(UUID connectionId);
 
+    void streamTicketsByConnectionId(UUID connectionId, Consumer<JiraIssueSummary> consumer);
+
+    List<JiraIssueSummary> searchTickets(UUID connectionId, String query, int limit);
+
     JiraIssueDetailsResponse getTicketById(UUID connectionId, String ticketId);
 
+    Map<String, JiraIssueDetails> getTicketsByKeys(UUID connectionId, List<String> ticketKeys);
+
     Map<String, UUID> getAllConnectionsByUserid(String ticketId);
 
     // New methods for OAuth‑based flow
     JiraIssueDetailsResponse getTicketByIdUsingOAuth(String userId, String ticketKey);
 
     Map<String, String> getAllTicketsForUserUsingOAuth(String userId);
+
+    Map<String, JiraIssueDetails> getTicketsByKeysUsingOAuth(String userId, List<String> ticketKeys);
+
+    Map<String, JiraIssueDetails> getTicketsByKeysForUser(String userId, Collection<String> ticketKeys);
+
+    void streamTicketsForUserUsingOAuth(String userId, Consumer<JiraIssueSummary> consumer);
+
+    List<JiraIssueSummary> searchTicketsForUserUsingOAuth(String userId, String query, int limit);
+
+    Set<String> getKnownProjectKeys(String userId);
 }
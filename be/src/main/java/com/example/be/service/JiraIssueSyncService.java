@@ -0,0 +1,17 @@
+package com.example.be.service;
+
+import com.example.be.model.JiraConnection;
+import tools.jackson.databind.JsonNode;
+
+import java.util.UUID;
+
+public interface JiraIssueSyncService {
+
+    void syncAll();
+
+    void syncConnection(JiraConnection connection);
+
+    boolean verifyWebhookSignature(String payload, String signatureHeader);
+
+    boolean applyWebhook(UUID connectionId, JsonNode payload);
+}
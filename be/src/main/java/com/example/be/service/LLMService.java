@@ -1,14 +1,24 @@
 package com.example.be.service;
 
+import com.example.be.config.LlmRoutingProperties.Route;
 import com.example.be.dto.PRSuggestion;
+import com.example.be.dto.SuggestionSource;
 import com.example.be.model.CompareResult;
+import com.example.be.util.RequestTiming;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class LLMService {
@@ -20,10 +30,15 @@ public class LLMService {
 
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final LlmModelRouter modelRouter;
+    private final MeterRegistry meterRegistry;
 
-    public LLMService() {
-        this.webClient = WebClient.create("https://api.groq.com");
+    public LLMService(@Qualifier("groqWebClient") WebClient webClient,
+            LlmModelRouter modelRouter, MeterRegistry meterRegistry) {
+        this.webClient = webClient;
         this.objectMapper = new ObjectMapper();
+        this.modelRouter = modelRouter;
+        this.meterRegistry = meterRegistry;
     }
 
     public PRSuggestion generatePRSuggestion(CompareResult compareResult) {
@@ -35,29 +50,19 @@ public class LLMService {
             // Build the prompt
             String prompt = buildPrompt(compareResult);
 
-            // Create request body for Groq API (OpenAI-compatible format)
-            String requestBody = String.format(
-                    "{\"model\":\"llama-3.3-70b-versatile\",\"messages\":[{\"role\":\"user\",\"content\":\"%s\"}],\"temperature\":0.7,\"max_tokens\":1000}",
-                    escapeJson(prompt));
-
-            logger.info("Calling Groq API...");
-
-            // Call Groq API
-            String response = webClient.post()
-                    .uri("/openai/v1/chat/completions")
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer " + groqApiKey)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            // Parse response (OpenAI format)
-            JsonNode jsonResponse = objectMapper.readTree(response);
-            String generatedText = jsonResponse
-                    .path("choices").get(0)
-                    .path("message")
-                    .path("content").asText();
+            // Pick model, token budget and timeout from the diff size
+            Route route = modelRouter.route(compareResult);
+            String generatedText;
+            try {
+                generatedText = complete(route, prompt);
+            } catch (Exception routeError) {
+                Route fallback = modelRouter.fallbackFor(route).orElseThrow(() -> routeError);
+                logger.warn("Route '{}' failed ({}), falling back to '{}'",
+                        route.getName(), routeError.getMessage(), fallback.getName());
+                meterRegistry.counter("prforge.llm.fallbacks",
+                        "route", route.getName(), "fallback", fallback.getName()).increment();
+                generatedText = complete(fallback, prompt);
+            }
 
             PRSuggestion result = parseResponse(generatedText);
             logger.info("=== PR Suggestion Generated Successfully ===");
@@ -90,11 +95,73 @@ public class LLMService {
             return PRSuggestion.builder()
                     .title("Update " + compareResult.getRepo())
                     .description(fallbackDescription)
+                    .source(SuggestionSource.FALLBACK)
                     .build();
         }
     }
 
-    private String buildPrompt(CompareResult compareResult) {
+    /**
+     * Sends the prompt on one route and returns the generated text. Latency is
+     * recorded per route and outcome so the routing table can be tuned.
+     */
+    private String complete(Route route, String prompt) throws Exception {
+        // Create request body for Groq API (OpenAI-compatible format)
+        String requestBody = String.format(
+                "{\"model\":\"%s\",\"messages\":[{\"role\":\"user\",\"content\":\"%s\"}],\"temperature\":0.7,\"max_tokens\":%d}",
+                escapeJson(route.getModel()), escapeJson(prompt), route.getMaxTokens());
+
+        logger.info("Calling Groq API on route '{}' ({})...", route.getName(), route.getModel());
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            // Call Groq API
+            String response = webClient.post()
+                    .uri("/openai/v1/chat/completions")
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + groqApiKey)
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .timeout(route.getTimeout())
+                    .block();
+
+            // Parse response (OpenAI format)
+            JsonNode jsonResponse = objectMapper.readTree(response);
+            recordTokens(route, jsonResponse.path("usage"));
+            return jsonResponse
+                    .path("choices").get(0)
+                    .path("message")
+                    .path("content").asText();
+        } catch (Exception e) {
+            outcome = Exceptions.unwrap(e) instanceof TimeoutException ? "timeout" : "error";
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            RequestTiming.record("llm", nanos);
+            Timer.builder("prforge.llm.requests")
+                    .description("Groq chat completion latency per route")
+                    .tag("route", route.getName())
+                    .tag("model", route.getModel())
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordTokens(Route route, JsonNode usage) {
+        if (usage.isMissingNode()) {
+            return;
+        }
+        meterRegistry.counter("prforge.llm.tokens", "route", route.getName(), "model", route.getModel(), "type", "prompt")
+                .increment(usage.path("prompt_tokens").asDouble());
+        meterRegistry.counter("prforge.llm.tokens", "route", route.getName(), "model", route.getModel(), "type", "completion")
+                .increment(usage.path("completion_tokens").asDouble());
+    }
+
+    // Package-private, like parseResponse and escapeJson, for the bench module
+    String buildPrompt(CompareResult compareResult) {
         StringBuilder prompt = new StringBuilder();
 
         prompt.append(
@@ -105,7 +172,12 @@ public class LLMService {
                 .append("\\n");
         prompt.append("Comparing: ").append(compareResult.getBaseBranch()).append(" → ")
                 .append(compareResult.getHeadBranch()).append("\\n");
-        prompt.append("Files Changed: ").append(compareResult.getFilesChanged()).append("\\n\\n");
+        prompt.append("Files Changed: ").append(compareResult.getFilesChanged());
+        if (compareResult.getFilesIgnored() != null && compareResult.getFilesIgnored() > 0) {
+            prompt.append(" (").append(compareResult.getFilesIgnored())
+                    .append(" generated, vendored or lock files not shown)");
+        }
+        prompt.append("\\n\\n");
 
         // Add code changes
         if (compareResult.getAddedCode() != null && !compareResult.getAddedCode().isEmpty()) {
@@ -159,7 +231,7 @@ public class LLMService {
         return prompt.toString();
     }
 
-    private PRSuggestion parseResponse(String response) {
+    PRSuggestion parseResponse(String response) {
         String title = "Update code";
         String description = "Code changes";
 
@@ -192,10 +264,11 @@ public class LLMService {
         return PRSuggestion.builder()
                 .title(title)
                 .description(description)
+                .source(SuggestionSource.LLM)
                 .build();
     }
 
-    private String escapeJson(String text) {
+    String escapeJson(String text) {
         return text.replace("\\", "\\\\")
                 .replace("\"", "\\\"")
                 .replace("\n", "\\n")
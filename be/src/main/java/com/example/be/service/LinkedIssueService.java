@@ -0,0 +1,123 @@
+package com.example.be.service;
+
+import com.example.be.dto.JiraIssueDetails;
+import com.example.be.util.JiraKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Looks up the Jira issues a compare refers to. Keys in the head branch are
+ * fetched while GitHub is still computing the compare; keys that only show up
+ * in commit messages are fetched afterwards within a short budget.
+ */
+@Service
+@Slf4j
+public class LinkedIssueService {
+
+    private static final CompletableFuture<Map<String, JiraIssueDetails>> NONE =
+            CompletableFuture.completedFuture(Map.of());
+
+    private final JiraConnectionService jiraConnectionService;
+    private final ThreadPoolTaskExecutor executor;
+
+    @Value("${jira.prefetch.enabled:true}")
+    private boolean enabled;
+
+    // Longest the compare response waits for issue details once GitHub has answered
+    @Value("${jira.prefetch.timeout-ms:1500}")
+    private long timeoutMs;
+
+    public LinkedIssueService(JiraConnectionService jiraConnectionService,
+            @Qualifier("jiraPrefetchExecutor") ThreadPoolTaskExecutor executor) {
+        this.jiraConnectionService = jiraConnectionService;
+        this.executor = executor;
+    }
+
+    /**
+     * Keys in the branch name that belong to one of the user's Jira projects;
+     * {@code fix-123} or {@code release-2} only count when FIX or RELEASE is one.
+     */
+    public Set<String> branchKeys(String userId, String headBranch) {
+        if (userId == null || headBranch == null) {
+            return Set.of();
+        }
+        try {
+            return JiraKeys.fromBranch(headBranch, jiraConnectionService.getKnownProjectKeys(userId));
+        } catch (Exception e) {
+            log.warn("Could not read Jira projects of user {}: {}", userId, e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /**
+     * Starts fetching the issues named in the branch. Never fails; an empty map
+     * means nothing was found or Jira is not connected.
+     */
+    public CompletableFuture<Map<String, JiraIssueDetails>> prefetch(String userId, Set<String> branchKeys) {
+        return fetchAsync(userId, branchKeys);
+    }
+
+    /**
+     * Combines the prefetched issues with those named only in commit messages,
+     * waiting at most {@code jira.prefetch.timeout-ms}. Issues that are not back
+     * in time are left out; their keys are still reported on the compare.
+     */
+    public Map<String, JiraIssueDetails> collect(String userId, Set<String> branchKeys,
+            CompletableFuture<Map<String, JiraIssueDetails>> prefetched, List<String> commitMessages) {
+        Set<String> extraKeys = new LinkedHashSet<>(JiraKeys.fromMessages(commitMessages));
+        extraKeys.removeAll(branchKeys);
+        CompletableFuture<Map<String, JiraIssueDetails>> extra = fetchAsync(userId, extraKeys);
+
+        Map<String, JiraIssueDetails> issues = new LinkedHashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        issues.putAll(await(prefetched, deadline));
+        issues.putAll(await(extra, deadline));
+        return issues;
+    }
+
+    private CompletableFuture<Map<String, JiraIssueDetails>> fetchAsync(String userId, Collection<String> keys) {
+        if (!enabled || userId == null || keys.isEmpty()) {
+            return NONE;
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return jiraConnectionService.getTicketsByKeysForUser(userId, keys);
+                } catch (Exception e) {
+                    log.warn("Could not fetch linked Jira issues {}: {}", keys, e.getMessage());
+                    return Map.<String, JiraIssueDetails>of();
+                }
+            }, executor);
+        } catch (TaskRejectedException e) {
+            log.warn("Linked issue prefetch pool is full, skipping {}", keys);
+            return NONE;
+        }
+    }
+
+    private Map<String, JiraIssueDetails> await(CompletableFuture<Map<String, JiraIssueDetails>> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.info("Linked Jira issues not ready within {} ms, returning compare without them", timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Linked Jira issue lookup failed: {}", e.getMessage());
+        }
+        return Map.of();
+    }
+}
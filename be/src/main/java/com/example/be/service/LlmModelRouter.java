@@ -0,0 +1,86 @@
+package com.example.be.service;
+
+import com.example.be.config.LlmRoutingProperties;
+import com.example.be.config.LlmRoutingProperties.Route;
+import com.example.be.model.CompareResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Picks the Groq model, token budget and timeout for a comparison from the
+ * configured routing table, based on how many lines and files it touches.
+ */
+@Component
+@RequiredArgsConstructor
+public class LlmModelRouter {
+
+    private static final Route DEFAULT_ROUTE = defaultRoute();
+
+    private final LlmRoutingProperties properties;
+
+    public Route route(CompareResult compareResult) {
+        List<Route> routes = properties.getRoutes();
+        if (routes == null || routes.isEmpty()) {
+            return DEFAULT_ROUTE;
+        }
+
+        int changedLines = changedLines(compareResult);
+        int files = compareResult.getFilesChanged() != null ? compareResult.getFilesChanged() : 0;
+        for (Route route : routes) {
+            if (fits(route.getMaxChangedLines(), changedLines) && fits(route.getMaxFiles(), files)) {
+                return route;
+            }
+        }
+        // Nothing fits: use the last (largest) route
+        return routes.get(routes.size() - 1);
+    }
+
+    public Optional<Route> fallbackFor(Route route) {
+        if (route.getFallback() == null || route.getFallback().equals(route.getName())) {
+            return Optional.empty();
+        }
+        return properties.getRoutes().stream()
+                .filter(candidate -> route.getFallback().equals(candidate.getName()))
+                .findFirst();
+    }
+
+    static int changedLines(CompareResult compareResult) {
+        int additions = compareResult.getAdditions() != null ? compareResult.getAdditions() : 0;
+        int deletions = compareResult.getDeletions() != null ? compareResult.getDeletions() : 0;
+        if (additions + deletions > 0) {
+            return additions + deletions;
+        }
+        // Totals are not always reported, count the extracted lines instead
+        return countLines(compareResult.getAddedCode()) + countLines(compareResult.getDeletedCode());
+    }
+
+    private static int countLines(String code) {
+        if (code == null || code.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        int index = code.indexOf("\\n");
+        while (index >= 0) {
+            count++;
+            index = code.indexOf("\\n", index + 2);
+        }
+        return count;
+    }
+
+    private static boolean fits(int limit, int value) {
+        return limit <= 0 || value <= limit;
+    }
+
+    private static Route defaultRoute() {
+        Route route = new Route();
+        route.setName("default");
+        route.setModel("llama-3.3-70b-versatile");
+        route.setMaxTokens(1000);
+        route.setTimeout(Duration.ofSeconds(30));
+        return route;
+    }
+}
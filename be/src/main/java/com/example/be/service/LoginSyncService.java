@@ -0,0 +1,210 @@
+package com.example.be.service;
+
+import com.example.be.config.JiraCacheProperties;
+import com.example.be.dto.LoginSyncStatus;
+import com.example.be.model.JiraConnection;
+import com.example.be.model.User;
+import com.example.be.repository.JiraConnectionRepo;
+import com.example.be.repository.UserRepository;
+import com.example.be.service.impl.JiraIssueTypeaheadIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import tools.jackson.databind.JsonNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Work a login used to do before redirecting: Jira site discovery and
+ * connection upserts, GitHub profile updates, and warming the user's Jira
+ * issue caches. The login handler only saves what the session needs and hands
+ * the rest to this service; progress is published through {@link LoginSyncTracker}.
+ */
+@Service
+@Slf4j
+public class LoginSyncService {
+
+    private static final String RESOURCES_URL = "https://api.atlassian.com/oauth/token/accessible-resources";
+
+    private final RestTemplate restTemplate;
+    private final JiraConnectionRepo jiraConnectionRepo;
+    private final UserRepository userRepository;
+    private final JiraIssueSyncService jiraIssueSyncService;
+    private final JiraIssueTypeaheadIndex typeaheadIndex;
+    private final JiraCacheProperties jiraCacheProperties;
+    private final LoginSyncTracker tracker;
+    private final ThreadPoolTaskExecutor executor;
+
+    public LoginSyncService(RestTemplate restTemplate,
+            JiraConnectionRepo jiraConnectionRepo,
+            UserRepository userRepository,
+            JiraIssueSyncService jiraIssueSyncService,
+            JiraIssueTypeaheadIndex typeaheadIndex,
+            JiraCacheProperties jiraCacheProperties,
+            LoginSyncTracker tracker,
+            @Qualifier("loginSyncExecutor") ThreadPoolTaskExecutor executor) {
+        this.restTemplate = restTemplate;
+        this.jiraConnectionRepo = jiraConnectionRepo;
+        this.userRepository = userRepository;
+        this.jiraIssueSyncService = jiraIssueSyncService;
+        this.typeaheadIndex = typeaheadIndex;
+        this.jiraCacheProperties = jiraCacheProperties;
+        this.tracker = tracker;
+        this.executor = executor;
+    }
+
+    /**
+     * Links every accessible Jira site to the user with the tokens of this login,
+     * then warms the issue caches of all the user's connections.
+     */
+    public void startJiraSync(String userId, String jiraAccountId, String jiraEmail,
+            String accessToken, String refreshToken, Instant expiresAt) {
+        start(userId, () -> {
+            int sites = linkJiraSites(userId, jiraAccountId, jiraEmail, accessToken, refreshToken, expiresAt);
+            tracker.update(userId, LoginSyncStatus.State.READY, sites, "Linked " + sites + " Jira site(s)");
+            warm(userId, sites);
+        });
+    }
+
+    /**
+     * Refreshes the stored GitHub profile of an existing user and warms their caches.
+     */
+    public void startGithubSync(String providerId, String name, String email, String avatarUrl) {
+        start(providerId, () -> {
+            userRepository.findByProviderId(providerId).ifPresent(user -> updateProfile(user, name, email, avatarUrl));
+            tracker.update(providerId, LoginSyncStatus.State.READY, null, "Profile synced");
+            warm(providerId, null);
+        });
+    }
+
+    private void start(String userId, Runnable sync) {
+        tracker.update(userId, LoginSyncStatus.State.RUNNING, null, null);
+        Runnable task = () -> {
+            try {
+                sync.run();
+            } catch (Exception e) {
+                log.error("Login sync failed for user {}: {}", userId, e.getMessage(), e);
+                tracker.update(userId, LoginSyncStatus.State.FAILED, null, e.getMessage());
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (TaskRejectedException e) {
+            log.warn("Login sync pool is full, user {} will sync on first use", userId);
+            tracker.update(userId, LoginSyncStatus.State.FAILED, null, "Sync is busy, data will load on first use");
+        }
+    }
+
+    private int linkJiraSites(String userId, String jiraAccountId, String jiraEmail,
+            String accessToken, String refreshToken, Instant expiresAt) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        headers.set("Accept", "application/json");
+
+        ResponseEntity<JsonNode> resourcesResponse = restTemplate.exchange(
+                RESOURCES_URL, HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+
+        JsonNode resources = resourcesResponse.getBody();
+        if (resources == null || !resources.isArray() || resources.isEmpty()) {
+            throw new IllegalStateException("No accessible Jira resources found for user");
+        }
+
+        // One connection per accessible site, all holding the tokens of this grant
+        int linked = 0;
+        for (JsonNode site : resources) {
+            if (!canReadIssues(site)) {
+                continue;
+            }
+            String cloudId = site.get("id").asText();
+            String baseUrl = site.get("url").asText();
+
+            JiraConnection connection = jiraConnectionRepo
+                    .findByUserIdAndCloudId(userId, cloudId)
+                    .orElse(JiraConnection.builder()
+                            .id(UUID.randomUUID())
+                            .userId(userId)
+                            .name("Jira OAuth " + cloudId)
+                            .build());
+
+            connection.setJiraAccountId(jiraAccountId);
+            connection.setJiraEmail(jiraEmail);
+            connection.setCloudId(cloudId);
+            connection.setBaseUrl(baseUrl);
+            connection.setOauthAccessToken(accessToken);
+            connection.setOauthRefreshToken(refreshToken);
+            connection.setOauthAccessTokenExpiresAt(
+                    expiresAt != null ? Date.from(expiresAt) : null);
+
+            jiraConnectionRepo.save(connection);
+            linked++;
+        }
+        // This login replaced the grant's refresh token, also for sites it no longer lists
+        jiraConnectionRepo.updateGrantTokens(userId, jiraAccountId, accessToken, refreshToken,
+                expiresAt != null ? Date.from(expiresAt) : null);
+        if (linked == 0) {
+            throw new IllegalStateException("No accessible Jira site grants issue access for user");
+        }
+        log.info("Linked {} Jira site(s) for user {}", linked, userId);
+        return linked;
+    }
+
+    // Resources can also be Confluence sites; those without Jira scopes are skipped
+    private static boolean canReadIssues(JsonNode site) {
+        JsonNode scopes = site.get("scopes");
+        if (scopes == null || !scopes.isArray()) {
+            return true;
+        }
+        for (JsonNode scope : scopes) {
+            if ("read:jira-work".equals(scope.asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updateProfile(User user, String name, String email, String avatarUrl) {
+        if (Objects.equals(user.getName(), name) && Objects.equals(user.getAvatarUrl(), avatarUrl)
+                && (email == null || email.equals(user.getEmail()))) {
+            return;
+        }
+        user.setName(name);
+        user.setAvatarUrl(avatarUrl);
+        if (email != null) {
+            user.setEmail(email);
+        }
+        userRepository.save(user);
+    }
+
+    /**
+     * Fills the issue cache and typeahead index of each of the user's connections
+     * so the first ticket picker is served locally. A failing site is skipped.
+     */
+    private void warm(String userId, Integer sites) {
+        List<String> failed = new ArrayList<>();
+        for (JiraConnection connection : jiraConnectionRepo.findAllByUserId(userId)) {
+            try {
+                if (jiraCacheProperties.isEnabled()) {
+                    jiraIssueSyncService.syncConnection(connection);
+                }
+                typeaheadIndex.warm(connection);
+            } catch (Exception e) {
+                log.warn("Could not warm Jira connection {} for user {}: {}", connection.getId(), userId, e.getMessage());
+                failed.add(connection.getName());
+            }
+        }
+        tracker.update(userId, LoginSyncStatus.State.WARM, sites,
+                failed.isEmpty() ? null : "Could not load issues from: " + String.join(", ", failed));
+    }
+}
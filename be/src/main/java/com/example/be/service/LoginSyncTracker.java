@@ -0,0 +1,122 @@
+package com.example.be.service;
+
+import com.example.be.dto.LoginSyncStatus;
+import com.example.be.model.LoginSync;
+import com.example.be.repository.LoginSyncRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Latest login sync status per user and the SSE subscribers waiting on it.
+ * The status is stored, so the sync can run on a different node than the one
+ * the frontend subscribes to; changes from other nodes are picked up by polling.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginSyncTracker {
+
+    private final LoginSyncRepository loginSyncRepository;
+
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // updatedAt of the last status pushed to each user's subscribers
+    private final Map<String, LocalDateTime> pushed = new ConcurrentHashMap<>();
+
+    @Value("${login-sync.sse-timeout-ms:60000}")
+    private long sseTimeoutMs;
+
+    public Optional<LoginSyncStatus> status(String userId) {
+        return loginSyncRepository.findById(userId).map(LoginSync::toStatus);
+    }
+
+    public void update(String userId, LoginSyncStatus.State state, Integer sites, String message) {
+        LoginSync sync = loginSyncRepository.save(LoginSync.builder()
+                .userId(userId)
+                .state(state)
+                .sites(sites)
+                .message(message != null && message.length() > 1024 ? message.substring(0, 1024) : message)
+                // Database timestamps are no finer than microseconds
+                .updatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .build());
+        publish(userId, sync.toStatus());
+    }
+
+    /**
+     * Sends the current status right away and every change until the sync finishes.
+     */
+    public SseEmitter subscribe(String userId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        LoginSyncStatus current = status(userId).orElse(null);
+        if (current != null) {
+            send(emitter, current);
+            if (current.isFinished()) {
+                return emitter;
+            }
+            pushed.merge(userId, current.getUpdatedAt(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        Runnable remove = () -> emitters.remove(emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * Pushes status changes written by other nodes to subscribers connected to this one.
+     * A sync that finished while a client was subscribing is also delivered here.
+     */
+    @Scheduled(fixedDelayString = "${login-sync.poll-interval-ms:1000}")
+    public void publishChanges() {
+        subscribers.entrySet().removeIf(entry -> entry.getValue().isEmpty());
+        pushed.keySet().retainAll(subscribers.keySet());
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (LoginSync sync : loginSyncRepository.findAllById(List.copyOf(subscribers.keySet()))) {
+            LocalDateTime last = pushed.get(sync.getUserId());
+            if (last == null || sync.getUpdatedAt().isAfter(last)) {
+                publish(sync.getUserId(), sync.toStatus());
+            }
+        }
+    }
+
+    private void publish(String userId, LoginSyncStatus status) {
+        List<SseEmitter> emitters = status.isFinished() ? subscribers.remove(userId) : subscribers.get(userId);
+        if (status.isFinished()) {
+            pushed.remove(userId);
+        } else {
+            pushed.put(userId, status.getUpdatedAt());
+        }
+        if (emitters != null) {
+            emitters.forEach(emitter -> send(emitter, status));
+        }
+    }
+
+    private void send(SseEmitter emitter, LoginSyncStatus status) {
+        try {
+            emitter.send(SseEmitter.event().name("login-sync").data(status));
+            if (status.isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not push login sync status to subscriber: {}", e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.be.service;
+
+import com.example.be.dto.PRSuggestion;
+import com.example.be.dto.SuggestionSource;
+import com.example.be.model.CompareResult;
+import com.example.be.model.SuggestionJob;
+import com.example.be.model.SuggestionJobStatus;
+import com.example.be.repository.CompareRepository;
+import com.example.be.repository.SuggestionJobRepository;
+import com.example.be.util.DiffFingerprint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Single entry point for producing a PR suggestion, shared by the synchronous
+ * endpoint and the background job workers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PRSuggestionService {
+
+    private final LLMService llmService;
+    private final TrivialDiffClassifier trivialDiffClassifier;
+    private final CompareRepository compareRepository;
+    private final SuggestionJobRepository jobRepository;
+
+    @Value("${suggestion.reuse.enabled:true}")
+    private boolean reuseEnabled;
+
+    // Must stay below DiffFingerprint.BANDS for the band lookup to find every match
+    @Value("${suggestion.reuse.max-distance:7}")
+    private int reuseMaxDistance;
+
+    public PRSuggestion generate(CompareResult compareResult) {
+        Optional<PRSuggestion> trivial = trivialDiffClassifier.summarize(compareResult);
+        if (trivial.isPresent()) {
+            return trivial.get();
+        }
+
+        Optional<PRSuggestion> reused = findNearDuplicate(compareResult);
+        if (reused.isPresent()) {
+            return reused.get();
+        }
+        return llmService.generatePRSuggestion(compareResult);
+    }
+
+    /**
+     * Looks for an earlier compare of the same repository whose diff fingerprint is
+     * within {@code suggestion.reuse.max-distance} bits and which already has an
+     * LLM-written suggestion. Reused and heuristic suggestions are not passed on,
+     * so a suggestion never drifts through a chain of near-duplicates.
+     */
+    private Optional<PRSuggestion> findNearDuplicate(CompareResult compareResult) {
+        Long fingerprint = compareResult.getDiffSimhash();
+        if (!reuseEnabled || fingerprint == null) {
+            return Optional.empty();
+        }
+
+        Optional<CompareRepository.FingerprintView> match = compareRepository.findNearestWithLlmSuggestion(
+                compareResult.getOwner(),
+                compareResult.getRepo(),
+                compareResult.getId() != null ? compareResult.getId() : -1L,
+                fingerprint,
+                reuseMaxDistance,
+                DiffFingerprint.band(fingerprint, 0),
+                DiffFingerprint.band(fingerprint, 1),
+                DiffFingerprint.band(fingerprint, 2),
+                DiffFingerprint.band(fingerprint, 3),
+                DiffFingerprint.band(fingerprint, 4),
+                DiffFingerprint.band(fingerprint, 5),
+                DiffFingerprint.band(fingerprint, 6),
+                DiffFingerprint.band(fingerprint, 7));
+        if (match.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<SuggestionJob> job = jobRepository.findFirstByCompareIdAndStatusAndSourceOrderByCompletedAtDesc(
+                match.get().getId(), SuggestionJobStatus.SUCCEEDED, SuggestionSource.LLM);
+        if (job.isEmpty()) {
+            return Optional.empty();
+        }
+        log.info("Reusing suggestion of compare {} for compare {} (distance {})",
+                match.get().getId(), compareResult.getId(), match.get().getDistance());
+        return Optional.of(PRSuggestion.builder()
+                .title(job.get().getTitle())
+                .description(job.get().getDescription())
+                .source(SuggestionSource.REUSED)
+                .build());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.be.service;
+
+import com.example.be.util.DiffFingerprint;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Builds what a compare stores, one file at a time: the simplified patches JSON,
+ * the added/deleted line listings used by the prompt and the diff fingerprint.
+ * Files are written out as they are added, so nothing of a file is kept beyond
+ * these outputs. Ignored files are listed without their patch and add no lines,
+ * but their line counts still go into the additions and deletions.
+ */
+class PatchAccumulator {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final StringWriter patches = new StringWriter();
+    private final JsonGenerator generator;
+    private final StringBuilder deletedCode = new StringBuilder();
+    private final StringBuilder addedCode = new StringBuilder();
+    private final DiffFingerprint fingerprint = new DiffFingerprint();
+    private int files;
+    private int ignored;
+    private int additions;
+    private int deletions;
+
+    PatchAccumulator() {
+        try {
+            generator = JSON.createGenerator(patches);
+            generator.writeStartArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void add(String filename, String status, String previousFilename, String patch) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("filename", filename);
+            generator.writeStringField("status", status);
+            generator.writeStringField("patch", patch);
+            if (previousFilename != null) {
+                generator.writeStringField("previous_filename", previousFilename);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            // StringWriter does not fail
+            throw new UncheckedIOException(e);
+        }
+        files++;
+
+        if (patch == null) {
+            return;
+        }
+        // Split the patch to extract deleted and added lines
+        for (String line : patch.split("\\n")) {
+            if (line.startsWith("-") && !line.startsWith("---")) {
+                deletedCode.append(filename).append(": ").append(line.substring(1)).append("\\n");
+                fingerprint.addLine(filename, '-', line.substring(1));
+            } else if (line.startsWith("+") && !line.startsWith("+++")) {
+                addedCode.append(filename).append(": ").append(line.substring(1)).append("\\n");
+                fingerprint.addLine(filename, '+', line.substring(1));
+            }
+        }
+    }
+
+    /**
+     * Lists the file with the reason it was ignored instead of its patch.
+     */
+    void ignore(String filename, String status, String previousFilename, String reason) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("filename", filename);
+            generator.writeStringField("status", status);
+            generator.writeNullField("patch");
+            if (previousFilename != null) {
+                generator.writeStringField("previous_filename", previousFilename);
+            }
+            generator.writeStringField("ignored", reason);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        files++;
+        ignored++;
+    }
+
+    /**
+     * Adds a file's counts from GitHub; GitHub has no totals for a compare.
+     */
+    void count(Integer additions, Integer deletions) {
+        this.additions += additions != null ? additions : 0;
+        this.deletions += deletions != null ? deletions : 0;
+    }
+
+    int files() {
+        return files;
+    }
+
+    /**
+     * Puts patches, deletedCode, addedCode, filesIgnored, additions, deletions
+     * and, when any line changed, diffSimhash into the compare result.
+     */
+    void finish(Map<String, Object> result) {
+        try {
+            generator.writeEndArray();
+            generator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        result.put("patches", patches.toString());
+        result.put("deletedCode", deletedCode.toString());
+        result.put("addedCode", addedCode.toString());
+        result.put("filesIgnored", ignored);
+        result.put("additions", additions);
+        result.put("deletions", deletions);
+        if (!fingerprint.isEmpty()) {
+            result.put("diffSimhash", fingerprint.build());
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.be.service;
+
+import com.example.be.dto.PRSuggestion;
+import com.example.be.dto.SuggestionSource;
+import com.example.be.model.CompareResult;
+import com.example.be.model.SuggestionJob;
+import com.example.be.model.SuggestionJobStatus;
+import com.example.be.model.User;
+import com.example.be.repository.SuggestionJobRepository;
+import com.example.be.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionJobService {
+
+    private static final EnumSet<SuggestionJobStatus> ACTIVE =
+            EnumSet.of(SuggestionJobStatus.PENDING, SuggestionJobStatus.RUNNING);
+    private static final EnumSet<SuggestionJobStatus> FINISHED =
+            EnumSet.of(SuggestionJobStatus.SUCCEEDED, SuggestionJobStatus.FAILED);
+    // Fallback text (rate limit, LLM error) is never served again, so a later click can retry
+    public static final EnumSet<SuggestionSource> SERVABLE_SOURCES =
+            EnumSet.of(SuggestionSource.LLM, SuggestionSource.REUSED, SuggestionSource.HEURISTIC);
+
+    public static final int PRIORITY_USER = 10;
+    public static final int PRIORITY_SPECULATIVE = 0;
+
+    private final SuggestionJobRepository jobRepository;
+    private final UserRepository userRepository;
+
+    // SSE subscribers and awaiting requests, called once the job finishes, keyed by job id
+    private final Map<Long, List<Consumer<SuggestionJob>>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${suggestion.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    // Doubles with each failed attempt, so a rate-limited LLM is not hit again right away
+    @Value("${suggestion.jobs.retry-backoff-seconds:15}")
+    private long retryBackoffSeconds;
+
+    @Value("${suggestion.jobs.lease-timeout-seconds:120}")
+    private long leaseTimeoutSeconds;
+
+    @Value("${suggestion.jobs.sse-timeout-ms:120000}")
+    private long sseTimeoutMs;
+
+    @Value("${suggestion.speculative.enabled:true}")
+    private boolean speculativeEnabled;
+
+    @Value("${suggestion.speculative.max-per-user-per-day:50}")
+    private long speculativeMaxPerUserPerDay;
+
+    @Value("${suggestion.speculative.max-per-day:1000}")
+    private long speculativeMaxPerDay;
+
+    @Value("${suggestion.speculative.await-ms:3000}")
+    private long speculativeAwaitMs;
+
+    /**
+     * Queues a suggestion for the given comparison. An already queued or running
+     * job for the same comparison is returned instead of creating a duplicate.
+     */
+    public SuggestionJob submit(CompareResult compareResult, Long userId) {
+        Optional<SuggestionJob> active = jobRepository
+                .findFirstByCompareIdAndStatusInOrderByCreatedAtDesc(compareResult.getId(), ACTIVE);
+        if (active.isPresent()) {
+            SuggestionJob job = active.get();
+            log.info("Reusing active suggestion job {} for compare {}", job.getId(), compareResult.getId());
+            if (Boolean.TRUE.equals(job.getSpeculative())) {
+                promote(job);
+            }
+            return job;
+        }
+
+        SuggestionJob job = SuggestionJob.builder()
+                .compareId(compareResult.getId())
+                .userId(userId)
+                .status(SuggestionJobStatus.PENDING)
+                .priority(PRIORITY_USER)
+                .speculative(false)
+                .attempts(0)
+                .build();
+        jobRepository.save(job);
+        log.info("Queued suggestion job {} for compare {}", job.getId(), compareResult.getId());
+        return job;
+    }
+
+    /**
+     * Queues a low-priority suggestion right after a compare is saved, for users
+     * who opted in and while the per-user and global daily caps allow it.
+     */
+    public Optional<SuggestionJob> enqueueSpeculative(CompareResult compareResult) {
+        Long userId = compareResult.getUserId();
+        if (!speculativeEnabled || userId == null) {
+            return Optional.empty();
+        }
+
+        boolean optedIn = userRepository.findByProviderId(String.valueOf(userId))
+                .map(User::getSpeculativeSuggestions)
+                .orElse(false);
+        if (!optedIn) {
+            return Optional.empty();
+        }
+
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        if (jobRepository.countByUserIdAndSpeculativeTrueAndCreatedAtAfter(userId, startOfDay)
+                >= speculativeMaxPerUserPerDay) {
+            log.info("Speculative suggestion cap reached for user {}", userId);
+            return Optional.empty();
+        }
+        if (jobRepository.countBySpeculativeTrueAndCreatedAtAfter(startOfDay) >= speculativeMaxPerDay) {
+            log.warn("Global speculative suggestion cap reached");
+            return Optional.empty();
+        }
+
+        SuggestionJob job = SuggestionJob.builder()
+                .compareId(compareResult.getId())
+                .userId(userId)
+                .status(SuggestionJobStatus.PENDING)
+                .priority(PRIORITY_SPECULATIVE)
+                .speculative(true)
+                .attempts(0)
+                .build();
+        jobRepository.save(job);
+        log.info("Queued speculative suggestion job {} for compare {}", job.getId(), compareResult.getId());
+        return Optional.of(job);
+    }
+
+    /**
+     * Finds an earlier job whose result can be served for this comparison: one
+     * still queued or running, else the latest that succeeded. A speculative job
+     * is promoted, since a user is now waiting on it.
+     */
+    public Optional<SuggestionJob> findReusable(Long compareId) {
+        Optional<SuggestionJob> active = jobRepository.findFirstByCompareIdAndStatusInOrderByCreatedAtDesc(
+                compareId, ACTIVE);
+        if (active.isPresent()) {
+            if (Boolean.TRUE.equals(active.get().getSpeculative())) {
+                promote(active.get());
+            }
+            return active;
+        }
+        return jobRepository.findFirstByCompareIdAndStatusAndSourceInOrderByCompletedAtDesc(
+                compareId, SuggestionJobStatus.SUCCEEDED, SERVABLE_SOURCES);
+    }
+
+    /**
+     * Completes with the job once it finished, or with the job as it was passed in
+     * if it is still running after {@code suggestion.speculative.await-ms}. Nothing
+     * polls or blocks meanwhile; the future is completed by the same notifications
+     * that feed the SSE subscribers.
+     */
+    public CompletableFuture<SuggestionJob> awaitFinished(SuggestionJob job) {
+        CompletableFuture<SuggestionJob> future = new CompletableFuture<>();
+        if (job.isFinished()) {
+            future.complete(job);
+            return future;
+        }
+        Consumer<SuggestionJob> listener = future::complete;
+        List<Consumer<SuggestionJob>> listeners = listen(job.getId(), listener);
+        future.whenComplete((finished, e) -> listeners.remove(listener));
+        return future.completeOnTimeout(job, speculativeAwaitMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The suggestion of a succeeded job. That may be the fallback text of a job that
+     * ran out of attempts; it is served to the request that waited on the job, but
+     * {@link #findReusable} never picks such a job up again.
+     */
+    public Optional<PRSuggestion> suggestionOf(SuggestionJob job) {
+        if (job.getStatus() != SuggestionJobStatus.SUCCEEDED) {
+            return Optional.empty();
+        }
+        return Optional.of(PRSuggestion.builder()
+                .title(job.getTitle())
+                .description(job.getDescription())
+                .source(job.getSource())
+                .build());
+    }
+
+    private void promote(SuggestionJob job) {
+        jobRepository.promote(job.getId(), PRIORITY_USER);
+        job.setPriority(PRIORITY_USER);
+        job.setSpeculative(false);
+    }
+
+    /**
+     * Stores a suggestion produced inline so later lookups can reuse it. Fallback
+     * suggestions are not stored, so the next request tries the LLM again.
+     */
+    public void recordCompleted(CompareResult compareResult, Long userId, PRSuggestion suggestion) {
+        if (!SERVABLE_SOURCES.contains(suggestion.getSource())) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jobRepository.save(SuggestionJob.builder()
+                .compareId(compareResult.getId())
+                .userId(userId)
+                .status(SuggestionJobStatus.SUCCEEDED)
+                .priority(PRIORITY_USER)
+                .speculative(false)
+                .attempts(1)
+                .title(suggestion.getTitle())
+                .description(suggestion.getDescription())
+                .source(suggestion.getSource())
+                .completedAt(now)
+                .build());
+    }
+
+    public Optional<SuggestionJob> findById(Long jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    /**
+     * Leases up to {@code limit} pending jobs to this node.
+     */
+    @Transactional
+    public List<SuggestionJob> claim(int limit, String nodeId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SuggestionJob> jobs = jobRepository.lockNextPending(limit, now);
+        for (SuggestionJob job : jobs) {
+            job.setStatus(SuggestionJobStatus.RUNNING);
+            job.setLockedBy(nodeId);
+            job.setLockedAt(now);
+            job.setAttempts(job.getAttempts() == null ? 1 : job.getAttempts() + 1);
+        }
+        return jobRepository.saveAll(jobs);
+    }
+
+    public void complete(SuggestionJob job, PRSuggestion suggestion) {
+        job.setStatus(SuggestionJobStatus.SUCCEEDED);
+        job.setTitle(suggestion.getTitle());
+        job.setDescription(suggestion.getDescription());
+        job.setSource(suggestion.getSource());
+        job.setError(null);
+        job.setNextAttemptAt(null);
+        job.setLockedBy(null);
+        job.setLockedAt(null);
+        job.setCompletedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        notifySubscribers(job);
+    }
+
+    public void fail(SuggestionJob job, String error) {
+        fail(job, error, true);
+    }
+
+    /**
+     * The LLM gave no answer (rate limit, timeout). Retried while attempts are left;
+     * the last attempt stores the fallback text, so the user gets that rather than
+     * an error. Later lookups skip it and try the LLM again.
+     */
+    public void fallBack(SuggestionJob job, PRSuggestion fallback, String error) {
+        if (hasAttemptsLeft(job)) {
+            fail(job, error);
+            return;
+        }
+        log.warn("Suggestion job {} is out of attempts, storing the fallback: {}", job.getId(), error);
+        complete(job, fallback);
+    }
+
+    private boolean hasAttemptsLeft(SuggestionJob job) {
+        return job.getAttempts() != null && job.getAttempts() < maxAttempts;
+    }
+
+    public void failPermanently(SuggestionJob job, String error) {
+        fail(job, error, false);
+    }
+
+    private void fail(SuggestionJob job, String error, boolean retryable) {
+        job.setError(error != null && error.length() > 2048 ? error.substring(0, 2048) : error);
+        job.setLockedBy(null);
+        job.setLockedAt(null);
+        if (retryable && hasAttemptsLeft(job)) {
+            // Let any node pick it up again once the back-off has passed
+            long backoff = retryBackoffSeconds << Math.min(job.getAttempts() - 1, 10);
+            job.setStatus(SuggestionJobStatus.PENDING);
+            job.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+            jobRepository.save(job);
+            log.warn("Suggestion job {} failed on attempt {}, retrying in {} s: {}",
+                    job.getId(), job.getAttempts(), backoff, error);
+            return;
+        }
+        job.setStatus(SuggestionJobStatus.FAILED);
+        job.setCompletedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        log.error("Suggestion job {} failed permanently: {}", job.getId(), error);
+        notifySubscribers(job);
+    }
+
+    /**
+     * Returns jobs whose lease outlived {@link #leaseTimeoutSeconds} (e.g. the
+     * owning node crashed or restarted) to the queue.
+     */
+    @Transactional
+    public void releaseExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusSeconds(leaseTimeoutSeconds);
+        int released = jobRepository.releaseExpiredLeases(
+                SuggestionJobStatus.PENDING, SuggestionJobStatus.RUNNING, cutoff, maxAttempts);
+        int failed = jobRepository.failExpiredLeases(
+                SuggestionJobStatus.FAILED, SuggestionJobStatus.RUNNING, cutoff, maxAttempts, now);
+        if (released > 0 || failed > 0) {
+            log.warn("Recovered expired suggestion job leases: {} re-queued, {} failed", released, failed);
+        }
+    }
+
+    public SseEmitter subscribe(SuggestionJob job) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        if (job.isFinished()) {
+            send(emitter, job);
+            return emitter;
+        }
+
+        Consumer<SuggestionJob> listener = finished -> send(emitter, finished);
+        List<Consumer<SuggestionJob>> listeners = listen(job.getId(), listener);
+        Runnable remove = () -> listeners.remove(listener);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    private List<Consumer<SuggestionJob>> listen(Long jobId, Consumer<SuggestionJob> listener) {
+        List<Consumer<SuggestionJob>> listeners = subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+        listeners.add(listener);
+        return listeners;
+    }
+
+    /**
+     * Pushes jobs finished by other nodes to subscribers and waiting requests on this one.
+     */
+    @Scheduled(fixedDelayString = "${suggestion.jobs.poll-interval-ms:1000}")
+    public void publishFinishedJobs() {
+        subscribers.entrySet().removeIf(entry -> entry.getValue().isEmpty());
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        jobRepository.findByIdInAndStatusIn(List.copyOf(subscribers.keySet()), FINISHED)
+                .forEach(this::notifySubscribers);
+    }
+
+    private void notifySubscribers(SuggestionJob job) {
+        List<Consumer<SuggestionJob>> listeners = subscribers.remove(job.getId());
+        if (listeners != null) {
+            listeners.forEach(listener -> listener.accept(job));
+        }
+    }
+
+    private void send(SseEmitter emitter, SuggestionJob job) {
+        try {
+            emitter.send(SseEmitter.event().name("job").data(job));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not push suggestion job {} to subscriber: {}", job.getId(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+}
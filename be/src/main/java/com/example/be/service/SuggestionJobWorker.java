@@ -0,0 +1,107 @@
+package com.example.be.service;
+
+import com.example.be.dto.PRSuggestion;
+import com.example.be.dto.SuggestionSource;
+import com.example.be.model.CompareResult;
+import com.example.be.model.SuggestionJob;
+import com.example.be.repository.CompareRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls the shared job table and runs claimed suggestion jobs on the bounded
+ * {@code suggestionJobExecutor}. Every node runs one of these.
+ */
+@Component
+@Slf4j
+public class SuggestionJobWorker {
+
+    private final SuggestionJobService jobService;
+    private final PRSuggestionService prSuggestionService;
+    private final CompareRepository compareRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final String nodeId;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Value("${suggestion.jobs.enabled:true}")
+    private boolean enabled;
+
+    public SuggestionJobWorker(SuggestionJobService jobService,
+            PRSuggestionService prSuggestionService,
+            CompareRepository compareRepository,
+            @Qualifier("suggestionJobExecutor") ThreadPoolTaskExecutor executor,
+            @Value("${suggestion.jobs.node-id:${HOSTNAME:node}}") String nodeName) {
+        this.jobService = jobService;
+        this.prSuggestionService = prSuggestionService;
+        this.compareRepository = compareRepository;
+        this.executor = executor;
+        this.nodeId = nodeName + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Scheduled(fixedDelayString = "${suggestion.jobs.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        int free = executor.getMaxPoolSize() - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+
+        List<SuggestionJob> claimed = jobService.claim(free, nodeId);
+        for (SuggestionJob job : claimed) {
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        process(job);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet();
+                jobService.fail(job, "Worker rejected job: " + e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${suggestion.jobs.recovery-interval-ms:60000}")
+    public void recoverExpiredLeases() {
+        if (enabled) {
+            jobService.releaseExpiredLeases();
+        }
+    }
+
+    private void process(SuggestionJob job) {
+        log.info("Processing suggestion job {} for compare {} on {}", job.getId(), job.getCompareId(), nodeId);
+        try {
+            CompareResult compareResult = compareRepository.findById(job.getCompareId()).orElse(null);
+            if (compareResult == null) {
+                jobService.failPermanently(job, "Comparison result not found");
+                return;
+            }
+            PRSuggestion suggestion = prSuggestionService.generate(compareResult);
+            if (suggestion.getSource() == SuggestionSource.FALLBACK) {
+                // The LLM call failed (rate limit, timeout); retry with back-off before storing the placeholder
+                String reason = suggestion.getDescription();
+                // LLMService separates the fallback's lines with an escaped "\\n"
+                int end = reason.indexOf("\\n");
+                String error = "LLM unavailable: " + (end < 0 ? reason : reason.substring(0, end));
+                jobService.fallBack(job, suggestion, error);
+                return;
+            }
+            jobService.complete(job, suggestion);
+        } catch (Exception e) {
+            jobService.fail(job, e.getMessage());
+        }
+    }
+}
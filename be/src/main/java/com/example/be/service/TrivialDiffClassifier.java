@@ -0,0 +1,317 @@
+package com.example.be.service;
+
+import com.example.be.dto.PRSuggestion;
+import com.example.be.dto.SuggestionSource;
+import com.example.be.model.CompareResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rule-based detection of compares that do not need an LLM: lockfile-only
+ * changes, dependency bumps, pure renames and whitespace-only reformatting.
+ * Produces a deterministic title and description for them.
+ */
+@Component
+@Slf4j
+public class TrivialDiffClassifier {
+
+    public enum ChangeClass {
+        RENAME_ONLY,
+        LOCKFILE_ONLY,
+        DEPENDENCY_BUMP,
+        FORMATTING_ONLY
+    }
+
+    private static final Set<String> LOCKFILES = Set.of(
+            "package-lock.json", "npm-shrinkwrap.json", "yarn.lock", "pnpm-lock.yaml", "bun.lockb",
+            "Gemfile.lock", "poetry.lock", "Pipfile.lock", "uv.lock", "Cargo.lock", "composer.lock",
+            "go.sum", "gradle.lockfile", "mix.lock", "flake.lock", "packages.lock.json", "Podfile.lock");
+
+    private static final Set<String> MANIFESTS = Set.of(
+            "package.json", "pom.xml", "build.gradle", "build.gradle.kts", "libs.versions.toml",
+            "requirements.txt", "pyproject.toml", "Pipfile", "go.mod", "Cargo.toml", "Gemfile",
+            "composer.json", "Podfile");
+
+    // Indentation is syntax here, so a whitespace change can change behavior
+    private static final Set<String> INDENTATION_SENSITIVE = Set.of(
+            ".py", ".pyi", ".yml", ".yaml", ".haml", ".pug", ".jade", ".slim", ".sass", ".styl", ".coffee",
+            ".nim", ".fs", ".fsx", ".elm", ".hs", ".mk", ".md");
+    private static final Set<String> INDENTATION_SENSITIVE_NAMES = Set.of("Makefile", "GNUmakefile");
+
+    private static final Pattern VERSION = Pattern.compile("\\d+(\\.\\d+)+");
+    // "name": "^1.2.3"  |  name==1.2.3  |  name = "1.2.3"  |  module v1.2.3
+    private static final Pattern KEYED_VERSION = Pattern.compile(
+            "^\\s*\"?([\\w@/.\\-\\[\\]:]+)\"?\\s*(?::|==|>=|~=|=|\\s)\\s*\"?([~^<>=v]*\\d[\\w.\\-+]*)\"?,?\\s*$");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${suggestion.fast-path.enabled:true}")
+    private boolean enabled = true;
+
+    // Classes listed here always go to the LLM
+    @Value("${suggestion.fast-path.force-llm:}")
+    private Set<ChangeClass> forceLlm = EnumSet.noneOf(ChangeClass.class);
+
+    public Optional<PRSuggestion> summarize(CompareResult compareResult) {
+        if (!enabled || compareResult.getPatches() == null) {
+            return Optional.empty();
+        }
+
+        List<Map<String, Object>> files = readFiles(compareResult);
+        if (files == null || files.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<PRSuggestion> suggestion = classify(files)
+                .filter(changeClass -> !forceLlm.contains(changeClass))
+                .map(changeClass -> describe(changeClass, files));
+        suggestion.ifPresent(s -> log.info("Compare {} handled by fast path: {}", compareResult.getId(), s.getTitle()));
+        return suggestion;
+    }
+
+    private List<Map<String, Object>> readFiles(CompareResult compareResult) {
+        try {
+            return objectMapper.readValue(compareResult.getPatches(), new TypeReference<List<Map<String, Object>>>() {
+            });
+        } catch (Exception e) {
+            log.warn("Could not read patches of compare {}: {}", compareResult.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    Optional<ChangeClass> classify(List<Map<String, Object>> files) {
+        if (files.stream().allMatch(this::isPureRename)) {
+            return Optional.of(ChangeClass.RENAME_ONLY);
+        }
+        if (files.stream().allMatch(file -> LOCKFILES.contains(baseName(file)))) {
+            return Optional.of(ChangeClass.LOCKFILE_ONLY);
+        }
+        if (files.stream().allMatch(file -> LOCKFILES.contains(baseName(file)) || MANIFESTS.contains(baseName(file)))
+                && files.stream().anyMatch(file -> MANIFESTS.contains(baseName(file)))
+                && files.stream().filter(file -> MANIFESTS.contains(baseName(file))).allMatch(this::onlyVersionChanges)) {
+            return Optional.of(ChangeClass.DEPENDENCY_BUMP);
+        }
+        if (files.stream().allMatch(this::isWhitespaceOnly)) {
+            return Optional.of(ChangeClass.FORMATTING_ONLY);
+        }
+        return Optional.empty();
+    }
+
+    private PRSuggestion describe(ChangeClass changeClass, List<Map<String, Object>> files) {
+        String title;
+        StringBuilder description = new StringBuilder();
+
+        switch (changeClass) {
+            case RENAME_ONLY -> {
+                if (files.size() == 1) {
+                    title = "Rename " + baseName(previousName(files.get(0))) + " to " + baseName(files.get(0));
+                } else {
+                    title = "Rename " + files.size() + " files";
+                }
+                description.append("Renamed files without changing their contents.\n\nChanges:\n");
+                for (Map<String, Object> file : files) {
+                    description.append("- ").append(previousName(file)).append(" → ").append(file.get("filename")).append("\n");
+                }
+            }
+            case LOCKFILE_ONLY -> {
+                title = "Update " + joinNames(files);
+                description.append("Regenerated dependency lockfiles; no manifest or source changes.\n\nChanges:\n");
+                for (Map<String, Object> file : files) {
+                    description.append("- Updated ").append(file.get("filename")).append("\n");
+                }
+            }
+            case DEPENDENCY_BUMP -> {
+                List<String> bumps = new ArrayList<>();
+                for (Map<String, Object> file : files) {
+                    if (MANIFESTS.contains(baseName(file))) {
+                        bumps.addAll(versionBumps(file));
+                    }
+                }
+                if (bumps.size() == 1) {
+                    title = "Bump " + bumps.get(0);
+                } else {
+                    title = "Bump dependency versions in " + joinNames(files.stream()
+                            .filter(file -> MANIFESTS.contains(baseName(file))).toList());
+                }
+                description.append("Updated dependency versions.\n\nChanges:\n");
+                if (bumps.isEmpty()) {
+                    for (Map<String, Object> file : files) {
+                        description.append("- Updated versions in ").append(file.get("filename")).append("\n");
+                    }
+                } else {
+                    bumps.stream().limit(20).forEach(bump -> description.append("- Bumped ").append(bump).append("\n"));
+                    if (bumps.size() > 20) {
+                        description.append("- ...and ").append(bumps.size() - 20).append(" more\n");
+                    }
+                }
+            }
+            default -> {
+                // FORMATTING_ONLY
+                title = "Reformat " + (files.size() == 1 ? baseName(files.get(0)) : files.size() + " files");
+                description.append("Applied formatting changes only; no functional changes.\n\nChanges:\n");
+                for (Map<String, Object> file : files) {
+                    description.append("- Reformatted ").append(file.get("filename")).append("\n");
+                }
+            }
+        }
+
+        return PRSuggestion.builder()
+                .title(title)
+                .description(description.toString().trim())
+                .source(SuggestionSource.HEURISTIC)
+                .build();
+    }
+
+    private boolean isPureRename(Map<String, Object> file) {
+        String patch = (String) file.get("patch");
+        // An ignored file has no patch left, which says nothing about its contents
+        return "renamed".equals(file.get("status")) && file.get("ignored") == null
+                && (patch == null || patch.isEmpty());
+    }
+
+    /**
+     * Every changed line carries a version, and each removed line is replaced by
+     * an added line for the same dependency: the line with its versions taken out
+     * must read the same on both sides, so swapping one artifact for another is
+     * not a bump.
+     */
+    private boolean onlyVersionChanges(Map<String, Object> file) {
+        String patch = (String) file.get("patch");
+        if (patch == null || !"modified".equals(file.get("status"))) {
+            return false;
+        }
+        List<String> removed = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        int pairs = 0;
+        for (String line : patch.split("\n")) {
+            if (!isChange(line)) {
+                // A context line or hunk header ends the current block of -/+ lines
+                if (!samePackages(removed, added)) {
+                    return false;
+                }
+                pairs += removed.size();
+                removed.clear();
+                added.clear();
+                continue;
+            }
+            if (!VERSION.matcher(line).find()) {
+                return false;
+            }
+            (line.charAt(0) == '-' ? removed : added).add(line.substring(1));
+        }
+        if (!samePackages(removed, added)) {
+            return false;
+        }
+        return pairs + removed.size() > 0;
+    }
+
+    private static boolean samePackages(List<String> removed, List<String> added) {
+        if (removed.size() != added.size()) {
+            return false;
+        }
+        for (int i = 0; i < removed.size(); i++) {
+            if (!withoutVersions(removed.get(i)).equals(withoutVersions(added.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String withoutVersions(String line) {
+        return VERSION.matcher(line).replaceAll("").strip();
+    }
+
+    /**
+     * Removed and added lines are the same once leading and trailing whitespace
+     * is trimmed, ignoring blank lines. Whitespace inside a line (string literals)
+     * still counts, and files where indentation is syntax never qualify.
+     */
+    private boolean isWhitespaceOnly(Map<String, Object> file) {
+        String patch = (String) file.get("patch");
+        if (patch == null || !"modified".equals(file.get("status")) || isIndentationSensitive(file)) {
+            return false;
+        }
+        List<String> removed = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        int changes = 0;
+        for (String line : patch.split("\n")) {
+            if (isChange(line)) {
+                changes++;
+                String trimmed = line.substring(1).strip();
+                if (!trimmed.isEmpty()) {
+                    (line.charAt(0) == '-' ? removed : added).add(trimmed);
+                }
+            }
+        }
+        return changes > 0 && removed.equals(added);
+    }
+
+    private static boolean isIndentationSensitive(Map<String, Object> file) {
+        String name = baseName(file);
+        int dot = name.lastIndexOf('.');
+        return INDENTATION_SENSITIVE_NAMES.contains(name)
+                || (dot >= 0 && INDENTATION_SENSITIVE.contains(name.substring(dot).toLowerCase(Locale.ROOT)));
+    }
+
+    private List<String> versionBumps(Map<String, Object> file) {
+        Map<String, String> removed = new LinkedHashMap<>();
+        Set<String> bumps = new LinkedHashSet<>();
+        String patch = (String) file.get("patch");
+        for (String line : patch.split("\n")) {
+            if (!isChange(line)) {
+                continue;
+            }
+            Matcher matcher = KEYED_VERSION.matcher(line.substring(1));
+            if (!matcher.matches()) {
+                continue;
+            }
+            if (line.charAt(0) == '-') {
+                removed.put(matcher.group(1), matcher.group(2));
+            } else if (removed.containsKey(matcher.group(1))) {
+                bumps.add(matcher.group(1) + " from " + removed.get(matcher.group(1)) + " to " + matcher.group(2));
+            }
+        }
+        return new ArrayList<>(bumps);
+    }
+
+    private static boolean isChange(String line) {
+        return (line.startsWith("-") && !line.startsWith("---")) || (line.startsWith("+") && !line.startsWith("+++"));
+    }
+
+    private static String previousName(Map<String, Object> file) {
+        Object previous = file.get("previous_filename");
+        return previous != null ? previous.toString() : String.valueOf(file.get("filename"));
+    }
+
+    private static String baseName(Map<String, Object> file) {
+        return baseName(String.valueOf(file.get("filename")));
+    }
+
+    private static String baseName(String path) {
+        int slash = path.lastIndexOf('/');
+        return slash >= 0 ? path.substring(slash + 1) : path;
+    }
+
+    private static String joinNames(List<Map<String, Object>> files) {
+        List<String> names = files.stream().map(TrivialDiffClassifier::baseName).distinct().toList();
+        if (names.size() <= 2) {
+            return String.join(" and ", names);
+        }
+        return names.get(0) + " and " + (names.size() - 1) + " other files";
+    }
+}
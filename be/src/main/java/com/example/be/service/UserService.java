@@ -1,7 +1,15 @@
 package com.example.be.service;
 
+import com.example.be.dto.UserIdentity;
 import com.example.be.model.User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
 
 public interface UserService {
     User findByProviderId(String id);
+
+    User updateSpeculativeSuggestions(String providerId, boolean enabled);
+
+    UserIdentity resolveIdentity(OAuth2User principal);
+
+    UserIdentity identityOf(User user, boolean jiraConnected);
 }
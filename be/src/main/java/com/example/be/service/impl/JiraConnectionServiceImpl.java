@@ -3,21 +3,28 @@ package com.example.be.service.impl;
 import com.example.be.dto.JiraConnectionRequestDto;
 import com.example.be.dto.JiraIssueDetails;
 import com.example.be.dto.JiraIssueDetailsResponse;
+import com.example.be.dto.JiraIssueSummary;
 import com.example.be.dto.ValidateResponse;
+import com.example.be.exception.JiraSiteUnavailableException;
 import com.example.be.exception.UserDoesNotExists;
 import com.example.be.model.JiraConnection;
 import com.example.be.model.User;
 import com.example.be.repository.JiraConnectionRepo;
 import com.example.be.service.JiraConnectionService;
+import com.example.be.util.AdfRenderer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import tools.jackson.databind.JsonNode;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +34,23 @@ public class JiraConnectionServiceImpl implements JiraConnectionService {
     private final JiraConnectionRepo jiraConnectionRepo;
     private final RestTemplate restTemplate;
     private final UserServiceImpl userService;
+    private final JiraIssueCache jiraIssueCache;
+    private final JiraIssueBulkFetcher jiraIssueBulkFetcher;
+    private final JiraTokenManager jiraTokenManager;
+    private final JiraIssueTypeaheadIndex typeaheadIndex;
+    private final JiraFanOut jiraFanOut;
+
+    // Listing only needs id/key; streaming adds what a picker shows
+    private static final String KEY_FIELDS = "key";
+    private static final String SUMMARY_FIELDS = "summary,status,updated";
+    static final String CACHE_FIELDS = "summary,status,updated,description";
+
+    @Value("${jira.search.page-size:100}")
+    private int searchPageSize;
+
+    // PLAIN or MARKDOWN rendering of ADF descriptions
+    @Value("${jira.description-format:PLAIN}")
+    private AdfRenderer.Format descriptionFormat;
 
     @Override
     public ValidateResponse saveJiraConnection(JiraConnectionRequestDto jiraConnectionRequestDto) {
@@ -47,7 +71,16 @@ public class JiraConnectionServiceImpl implements JiraConnectionService {
             return new ValidateResponse(true, "Connection with this name already exists for the user.");
         }
 
-        boolean isConnectionTested = testJiraConnection(jiraConnectionRequestDto);
+        boolean isConnectionTested;
+        try {
+            isConnectionTested = testJiraConnection(jiraConnectionRequestDto);
+        } catch (JiraSiteUnavailableException e) {
+            log.warn("Jira site unavailable while testing {}: {}", jiraConnectionRequestDto.getName(), e.getMessage());
+            return new ValidateResponse(true, "Jira site is unavailable right now, please try again later.");
+        } catch (RestClientException e) {
+            log.error("Could not reach Jira while testing {}: {}", jiraConnectionRequestDto.getName(), e.getMessage());
+            return new ValidateResponse(true, "Could not reach Jira, please check the domain URL and try again.");
+        }
         if (!isConnectionTested) {
             log.error("Connection test failed for {}", jiraConnectionRequestDto.getName());
             return new ValidateResponse(true, "Connection failed, Try again with correct credentials.");
@@ -97,27 +130,33 @@ public class JiraConnectionServiceImpl implements JiraConnectionService {
         return keyAndNameValid;
     }
 
+    /**
+     * True when the project exists and has the expected name. Credentials or a
+     * project the user cannot see give false; an unreachable or failing site is
+     * not a validation result and propagates.
+     */
     public boolean doesConnectionExistandNameMatch(String domainurl, String projectKey,
             String expectedProjectName, String apiToken, String username) {
         String url = domainurl + "/rest/api/3/project/" + projectKey;
-        try {
-            HttpHeaders headers = createAuthHeader(username, apiToken);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
+        HttpHeaders headers = createAuthHeader(username, apiToken);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                String actualProjectName = response.getBody().get("name").toString();
-                boolean match = actualProjectName != null && actualProjectName.equalsIgnoreCase(expectedProjectName);
-                log.info("Project name validation: expected='{}', actual='{}', match={}",
-                        expectedProjectName, actualProjectName, match);
-                return match;
-            }
-            return false;
-        } catch (Exception e) {
-            log.error("Error validating project name: {}", e.getMessage(), e);
+        ResponseEntity<JsonNode> response;
+        try {
+            response = restTemplate.exchange(url, HttpMethod.GET, entity, JsonNode.class);
+        } catch (HttpClientErrorException e) {
+            log.warn("Jira rejected project lookup for {}: {}", projectKey, e.getStatusCode());
             return false;
         }
+
+        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+            String actualProjectName = response.getBody().path("name").asText(null);
+            boolean match = actualProjectName != null && actualProjectName.equalsIgnoreCase(expectedProjectName);
+            log.info("Project name validation: expected='{}', actual='{}', match={}",
+                    expectedProjectName, actualProjectName, match);
+            return match;
+        }
+        return false;
     }
 
     public HttpHeaders createAuthHeader(String username, String apiToken) {
@@ -141,53 +180,96 @@ public class JiraConnectionServiceImpl implements JiraConnectionService {
     public Map<String, String> getAllTicketsByConnectionId(UUID connectionId) {
         log.info("Fetching all tickets for connectionId: {}", connectionId);
         JiraConnection connection = jiraConnectionRepo.findById(connectionId).orElseThrow();
-        String jiraUrl = connection.getDomainUrl();
 
-        String auth = connection.getUsername() + ":" + connection.getToken();
-        String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
+        Map<String, String> idToKeyMap = jiraIssueCache.findAllKeys(connection)
+                .orElseGet(() -> extractTicketKeys(searchIssues(connection, KEY_FIELDS)));
 
-        String url = jiraUrl + "/rest/api/3/search/jql?jql={jql}&startAt={startAt}&maxResults={maxResults}&fields=*all";
+        log.info("Tickets fetched successfully for connectionId: {}", connectionId);
+        return idToKeyMap;
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Basic " + encodedAuth);
-        headers.set("Accept", "application/json");
+    @Override
+    public void streamTicketsByConnectionId(UUID connectionId, Consumer<JiraIssueSummary> consumer) {
+        log.info("Streaming all tickets for connectionId: {}", connectionId);
+        JiraConnection connection = jiraConnectionRepo.findById(connectionId).orElseThrow();
+        searchIssues(connection, SUMMARY_FIELDS).forEachRemaining(issue -> consumer.accept(toSummary(issue)));
+    }
+
+    /**
+     * Typeahead over the synced issues of the connection; issues not yet synced are not found.
+     */
+    @Override
+    public List<JiraIssueSummary> searchTickets(UUID connectionId, String query, int limit) {
+        JiraConnection connection = jiraConnectionRepo.findById(connectionId)
+                .orElseThrow(() -> new RuntimeException("Connection not found"));
+        return typeaheadIndex.search(connection, query, limit);
+    }
+
+    /**
+     * Iterates every issue visible on the connection, requesting only {@code fields}.
+     */
+    JiraIssueSearchIterator searchIssues(JiraConnection connection, String fields) {
+        return searchIssues(connection, fields, projectJql(connection));
+    }
+
+    JiraIssueSearchIterator searchIssues(JiraConnection connection, String fields, String jql) {
+        return new JiraIssueSearchIterator(restTemplate, siteUrl(connection), siteHeaders(connection),
+                jql, fields, searchPageSize);
+    }
 
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+    private String projectJql(JiraConnection connection) {
+        String clause = projectClause(connection);
+        return clause.isEmpty() ? "ORDER BY created DESC" : clause + " ORDER BY created DESC";
+    }
 
-        Map<String, Object> uriVariables = new HashMap<>();
+    String projectClause(JiraConnection connection) {
         if (connection.getProjectKey() != null && !connection.getProjectKey().isEmpty()) {
-            uriVariables.put("jql", "project=" + connection.getProjectKey() + " ORDER BY created DESC");
-        } else {
-            uriVariables.put("jql", "ORDER BY created DESC");
+            return "project=" + connection.getProjectKey();
         }
-        uriVariables.put("startAt", 0);
-        uriVariables.put("maxResults", 100);
-        uriVariables.put("fields", "summary,description,status,assignee,reporter,priority,created,updated,comment");
-        uriVariables.put("expand", "names,schema");
-
-        ResponseEntity<JsonNode> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                JsonNode.class,
-                uriVariables);
+        return "";
+    }
 
-        log.info("Tickets fetched successfully for connectionId: {}", connectionId);
-        return extractTicketKeys(response.getBody());
+    // OAuth connections talk to the site url, manual ones to the configured domain
+    String siteUrl(JiraConnection connection) {
+        return connection.getOauthAccessToken() != null ? connection.getBaseUrl() : connection.getDomainUrl();
     }
 
-    public Map<String, String> extractTicketKeys(JsonNode response) {
-        Map<String, String> idToKeyMap = new HashMap<>();
-        JsonNode issues = response.get("issues");
+    HttpHeaders siteHeaders(JiraConnection connection) {
+        if (connection.getOauthAccessToken() != null) {
+            return createOauthAuthHeader(jiraTokenManager.accessToken(connection));
+        }
+        return createAuthHeader(connection.getUsername(), connection.getToken());
+    }
 
-        if (issues != null && issues.isArray()) {
-            for (JsonNode issue : issues) {
-                JsonNode keyNode = issue.get("key");
-                JsonNode idNode = issue.get("id");
+    // Every site the user reached through OAuth plus their manual connections
+    private List<JiraConnection> findUserConnections(String userId) {
+        List<JiraConnection> connections = jiraConnectionRepo.findAllByUserId(userId);
+        if (connections.isEmpty()) {
+            throw new RuntimeException("No Jira connection found for user");
+        }
+        return connections;
+    }
 
-                if (keyNode != null && idNode != null) {
-                    idToKeyMap.put(idNode.asText(), keyNode.asText());
-                }
+    public JiraIssueSummary toSummary(JsonNode issue) {
+        JsonNode fields = issue.path("fields");
+        return JiraIssueSummary.builder()
+                .id(issue.path("id").asText())
+                .key(issue.path("key").asText())
+                .summary(fields.path("summary").asText(null))
+                .status(fields.path("status").path("name").asText(null))
+                .updated(fields.path("updated").asText(null))
+                .build();
+    }
+
+    public Map<String, String> extractTicketKeys(Iterator<JsonNode> issues) {
+        Map<String, String> idToKeyMap = new HashMap<>();
+        while (issues.hasNext()) {
+            JsonNode issue = issues.next();
+            JsonNode keyNode = issue.get("key");
+            JsonNode idNode = issue.get("id");
+
+            if (keyNode != null && idNode != null) {
+                idToKeyMap.put(idNode.asText(), keyNode.asText());
             }
         }
 
@@ -202,34 +284,20 @@ public class JiraConnectionServiceImpl implements JiraConnectionService {
             JiraConnection connection = jiraConnectionRepo.findById(connectionId)
                     .orElseThrow(() -> new RuntimeException("Connection not found"));
 
-            String jiraUrl = connection.getDomainUrl();
-            String auth = connection.getUsername() + ":" + connection.getToken();
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
-
-            String url = jiraUrl + "/rest/api/3/issue/{ticketId}";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Basic " + encodedAuth);
-            headers.set("Accept", "application/json");
-
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            Map<String, String> uriVariables = new HashMap<>();
-            uriVariables.put("ticketId", ticketId);
-
-            ResponseEntity<JsonNode> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    JsonNode.class,
-                    uriVariables);
-
-            JiraIssueDetails issueDetails = extractIssueDetails(response.getBody());
+            Optional<JiraIssueDetails> issueDetails = fetchIssue(connection, ticketId);
+            if (issueDetails.isEmpty()) {
+                return JiraIssueDetailsResponse.builder()
+                        .success(false)
+                        .message("Ticket not found")
+                        .jiraIssueDetails(null)
+                        .build();
+            }
 
             log.info("Ticket {} fetched successfully", ticketId);
             return JiraIssueDetailsResponse.builder()
                     .success(true)
                     .message("Ticket fetched successfully")
-                    .jiraIssueDetails(issueDetails)
+                    .jiraIssueDetails(issueDetails.get())
                     .build();
 
         } catch (Exception e) {
@@ -242,104 +310,199 @@ public class JiraConnectionServiceImpl implements JiraConnectionService {
         }
     }
 
-    // NEW: OAuth version – use userId + bearer token + baseUrl
     @Override
-    public JiraIssueDetailsResponse getTicketByIdUsingOAuth(String userId, String ticketKey) {
-        log.info("Fetching ticket {} for user {} using OAuth Jira connection", ticketKey, userId);
-
-        JiraConnection connection = jiraConnectionRepo.findAllByUserId(userId).stream()
-                .filter(c -> c.getOauthAccessToken() != null)
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("No OAuth Jira connection found for user"));
-
-        String baseUrl = connection.getBaseUrl();
-        String url = baseUrl + "/rest/api/3/issue/{ticketId}";
-
-        HttpHeaders headers = createOauthAuthHeader(connection.getOauthAccessToken());
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+    public Map<String, JiraIssueDetails> getTicketsByKeys(UUID connectionId, List<String> ticketKeys) {
+        log.info("Fetching {} tickets for connectionId: {}", ticketKeys.size(), connectionId);
+        JiraConnection connection = jiraConnectionRepo.findById(connectionId)
+                .orElseThrow(() -> new RuntimeException("Connection not found"));
+        return jiraIssueBulkFetcher.fetch(connection, siteUrl(connection), siteHeaders(connection),
+                ticketKeys, this::extractIssueDetails);
+    }
 
-        Map<String, String> uriVariables = new HashMap<>();
-        uriVariables.put("ticketId", ticketKey);
+    /**
+     * Looks the issue up on all of the user's sites at once and answers with the
+     * first site that has it.
+     */
+    @Override
+    public JiraIssueDetailsResponse getTicketByIdUsingOAuth(String userId, String ticketKey) {
+        log.info("Fetching ticket {} for user {} across their Jira connections", ticketKey, userId);
 
-        ResponseEntity<JsonNode> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                JsonNode.class,
-                uriVariables);
+        List<JiraConnection> connections = findUserConnections(userId);
+        Optional<JiraIssueDetails> issueDetails = jiraFanOut.first(connections,
+                connection -> fetchIssue(connection, ticketKey));
 
-        JiraIssueDetails issueDetails = extractIssueDetails(response.getBody());
+        if (issueDetails.isEmpty()) {
+            log.info("Ticket {} not found on any of {} connections", ticketKey, connections.size());
+            return JiraIssueDetailsResponse.builder()
+                    .success(false)
+                    .message("Ticket not found on any connected Jira site")
+                    .jiraIssueDetails(null)
+                    .build();
+        }
 
         log.info("Ticket {} fetched successfully using OAuth", ticketKey);
         return JiraIssueDetailsResponse.builder()
                 .success(true)
                 .message("Ticket fetched successfully")
-                .jiraIssueDetails(issueDetails)
+                .jiraIssueDetails(issueDetails.get())
                 .build();
     }
 
-    // NEW: OAuth version of "get all tickets"
+    /**
+     * Merged id to key map of all the user's connections. Issue ids are only unique
+     * per site, so on a collision the first connection wins.
+     */
     @Override
     public Map<String, String> getAllTicketsForUserUsingOAuth(String userId) {
-        log.info("Fetching all tickets for user {} using OAuth Jira connection", userId);
+        log.info("Fetching all tickets for user {} across their Jira connections", userId);
 
-        JiraConnection connection = jiraConnectionRepo.findAllByUserId(userId).stream()
-                .filter(c -> c.getOauthAccessToken() != null)
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("No OAuth Jira connection found for user"));
+        List<JiraConnection> connections = findUserConnections(userId);
+        Map<String, String> idToKeyMap = new HashMap<>();
+        jiraFanOut.all(connections, connection -> jiraIssueCache.findAllKeys(connection)
+                        .orElseGet(() -> extractTicketKeys(searchIssues(connection, KEY_FIELDS))))
+                .forEach(keys -> keys.forEach(idToKeyMap::putIfAbsent));
 
-        String jiraUrl = connection.getBaseUrl();
-        String url = jiraUrl + "/rest/api/3/search/jql?jql={jql}&startAt={startAt}&maxResults={maxResults}&fields=*all";
+        log.info("Fetched {} tickets for user {} from {} connections", idToKeyMap.size(), userId, connections.size());
+        return idToKeyMap;
+    }
 
-        HttpHeaders headers = createOauthAuthHeader(connection.getOauthAccessToken());
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+    @Override
+    public Map<String, JiraIssueDetails> getTicketsByKeysUsingOAuth(String userId, List<String> ticketKeys) {
+        log.info("Fetching {} tickets for user {} across their Jira connections", ticketKeys.size(), userId);
+        return fetchAcross(findUserConnections(userId), ticketKeys);
+    }
 
-        Map<String, Object> uriVariables = new HashMap<>();
-        if (connection.getProjectKey() != null && !connection.getProjectKey().isEmpty()) {
-            uriVariables.put("jql", "project=" + connection.getProjectKey() + " ORDER BY created DESC");
-        } else {
-            uriVariables.put("jql", "ORDER BY created DESC");
+    @Override
+    public Map<String, JiraIssueDetails> getTicketsByKeysForUser(String userId, Collection<String> ticketKeys) {
+        List<JiraConnection> connections = jiraConnectionRepo.findAllByUserId(userId);
+        if (connections.isEmpty() || ticketKeys.isEmpty()) {
+            return Map.of();
         }
-        uriVariables.put("startAt", 0);
-        uriVariables.put("maxResults", 100);
-        uriVariables.put("fields", "summary,description,status,assignee,reporter,priority,created,updated,comment");
-        uriVariables.put("expand", "names,schema");
-
-        ResponseEntity<JsonNode> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                JsonNode.class,
-                uriVariables);
-
-        log.info("Tickets fetched successfully for user {} using OAuth", userId);
-        return extractTicketKeys(response.getBody());
+        return fetchAcross(connections, ticketKeys);
     }
 
-    public String parseADF(JsonNode node) {
-        if (node == null)
-            return "";
-
-        StringBuilder result = new StringBuilder();
+    /**
+     * Projects the user's connections are configured for or have synced issues of,
+     * read from the typeahead index so only an unbuilt index touches the database.
+     */
+    @Override
+    public Set<String> getKnownProjectKeys(String userId) {
+        Set<String> projects = new HashSet<>();
+        for (JiraConnection connection : jiraConnectionRepo.findAllByUserId(userId)) {
+            if (connection.getProjectKey() != null && !connection.getProjectKey().isBlank()) {
+                projects.add(connection.getProjectKey().toUpperCase(Locale.ROOT));
+            }
+            projects.addAll(typeaheadIndex.projects(connection));
+        }
+        return projects;
+    }
 
-        if (node.has("text")) {
-            result.append(node.get("text").asText());
+    /**
+     * A key goes to the connections configured for its project; keys of other
+     * projects are asked of every connection. Sites are queried concurrently and
+     * the first connection that returns a key wins.
+     */
+    private Map<String, JiraIssueDetails> fetchAcross(List<JiraConnection> connections, Collection<String> ticketKeys) {
+        Map<UUID, List<String>> keysByConnection = new HashMap<>();
+        for (String key : ticketKeys) {
+            // Raw request input; the bulk fetcher drops these too
+            if (key == null || key.isBlank()) {
+                continue;
+            }
+            String project = key.substring(0, Math.max(0, key.indexOf('-')));
+            List<JiraConnection> owners = connections.stream()
+                    .filter(c -> project.equalsIgnoreCase(c.getProjectKey()))
+                    .toList();
+            for (JiraConnection connection : owners.isEmpty() ? connections : owners) {
+                keysByConnection.computeIfAbsent(connection.getId(), id -> new ArrayList<>()).add(key);
+            }
         }
 
-        if (node.has("content") && node.get("content").isArray()) {
-            for (JsonNode child : node.get("content")) {
-                result.append(parseADF(child));
+        List<JiraConnection> targets = connections.stream()
+                .filter(c -> keysByConnection.containsKey(c.getId()))
+                .toList();
+        Map<String, JiraIssueDetails> issues = new LinkedHashMap<>();
+        jiraFanOut.all(targets, connection -> jiraIssueBulkFetcher.fetch(connection, siteUrl(connection),
+                        siteHeaders(connection), keysByConnection.get(connection.getId()), this::extractIssueDetails))
+                .forEach(found -> found.forEach(issues::putIfAbsent));
+        return issues;
+    }
 
-                if (child.has("type")) {
-                    String type = child.get("type").asText();
-                    if (type.equals("paragraph") || type.equals("hardBreak") || type.equals("listItem")) {
-                        result.append("\n");
-                    }
+    /**
+     * Typeahead over every connection, interleaving each site's ranked matches.
+     */
+    @Override
+    public List<JiraIssueSummary> searchTicketsForUserUsingOAuth(String userId, String query, int limit) {
+        List<List<JiraIssueSummary>> perSite = jiraFanOut.all(findUserConnections(userId),
+                connection -> typeaheadIndex.search(connection, query, limit));
+
+        List<JiraIssueSummary> merged = new ArrayList<>();
+        for (int rank = 0; merged.size() < limit; rank++) {
+            boolean more = false;
+            for (List<JiraIssueSummary> matches : perSite) {
+                if (rank < matches.size() && merged.size() < limit) {
+                    merged.add(matches.get(rank));
+                    more = true;
                 }
             }
+            if (!more) {
+                break;
+            }
         }
+        return merged;
+    }
 
-        return result.toString().trim();
+    /**
+     * Streams all sites concurrently; each page request is bounded by the Jira
+     * client timeouts, and a failing site does not end the others' streams.
+     */
+    @Override
+    public void streamTicketsForUserUsingOAuth(String userId, Consumer<JiraIssueSummary> consumer) {
+        log.info("Streaming all tickets for user {} across their Jira connections", userId);
+        jiraFanOut.each(findUserConnections(userId), connection -> searchIssues(connection, SUMMARY_FIELDS)
+                .forEachRemaining(issue -> {
+                    JiraIssueSummary summary = toSummary(issue);
+                    synchronized (consumer) {
+                        consumer.accept(summary);
+                    }
+                }));
+    }
+
+    /**
+     * Cache first, then a live read; empty when the site does not have the issue.
+     */
+    private Optional<JiraIssueDetails> fetchIssue(JiraConnection connection, String ticketIdOrKey) {
+        Optional<JiraIssueDetails> cached = jiraIssueCache.find(connection, ticketIdOrKey);
+        if (cached.isPresent()) {
+            log.info("Ticket {} served from cache", ticketIdOrKey);
+            return cached;
+        }
+
+        try {
+            ResponseEntity<JsonNode> response = restTemplate.exchange(
+                    siteUrl(connection) + "/rest/api/3/issue/{ticketId}",
+                    HttpMethod.GET,
+                    new HttpEntity<>(siteHeaders(connection)),
+                    JsonNode.class,
+                    Map.of("ticketId", ticketIdOrKey));
+
+            cacheIssue(connection, response.getBody());
+            return Optional.ofNullable(extractIssueDetails(response.getBody()));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    // Live fetches also refresh the local copy; a failure here must not fail the read
+    private void cacheIssue(JiraConnection connection, JsonNode issue) {
+        if (issue == null || !issue.has("key")) {
+            return;
+        }
+        try {
+            jiraIssueCache.upsert(connection.getId(), List.of(issue), this::extractIssueDetails);
+        } catch (Exception e) {
+            log.warn("Could not cache Jira issue {}: {}", issue.path("key").asText(), e.getMessage());
+        }
     }
 
     public JiraIssueDetails extractIssueDetails(JsonNode response) {
@@ -347,24 +510,12 @@ public class JiraConnectionServiceImpl implements JiraConnectionService {
         if (fields == null)
             return null;
 
-        String title = fields.get("summary").asText();
-        String descriptionText = parseADF(fields.get("description"));
-
-        List<String> acceptanceCriteria = new ArrayList<>();
-        String[] lines = descriptionText.split("\n");
-        boolean isAC = false;
-        for (String line : lines) {
-            if (line.trim().equalsIgnoreCase("Acceptance Criteria:")) {
-                isAC = true;
-                continue;
-            }
-            if (isAC && !line.trim().isEmpty()) {
-                acceptanceCriteria.add(line.trim());
-            }
-        }
+        String title = fields.path("summary").asText();
+        AdfRenderer.Rendered description = AdfRenderer.render(fields.get("description"), descriptionFormat);
 
         log.info("Extracted issue details for: {}", title);
-        return new JiraIssueDetails(title, descriptionText, acceptanceCriteria);
+        return new JiraIssueDetails(title, description.getText(),
+                new ArrayList<>(description.getAcceptanceCriteria()));
     }
 
     @Override
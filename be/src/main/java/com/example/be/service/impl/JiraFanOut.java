@@ -0,0 +1,144 @@
+package com.example.be.service.impl;
+
+import com.example.be.model.JiraConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs one call per Jira connection concurrently. Sites that fail or miss
+ * {@code jira.fan-out.site-timeout-ms} are logged and left out of the result
+ * instead of failing or delaying the others.
+ */
+@Component
+@Slf4j
+public class JiraFanOut {
+
+    private final ThreadPoolTaskExecutor executor;
+
+    @Value("${jira.fan-out.site-timeout-ms:5000}")
+    private long siteTimeoutMs;
+
+    public JiraFanOut(@Qualifier("jiraFanOutExecutor") ThreadPoolTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Results of every site that answered in time, in connection order.
+     */
+    public <T> List<T> all(List<JiraConnection> connections, Function<JiraConnection, T> task) {
+        List<CompletableFuture<T>> futures = submit(connections, task);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(siteTimeoutMs);
+
+        List<T> results = new ArrayList<>(connections.size());
+        for (int i = 0; i < futures.size(); i++) {
+            T result = await(connections.get(i), futures.get(i), deadline);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The first non-empty answer from any site, without waiting for the slower ones.
+     */
+    public <T> Optional<T> first(List<JiraConnection> connections, Function<JiraConnection, Optional<T>> task) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        List<CompletableFuture<Optional<T>>> futures = submit(connections, task);
+        for (CompletableFuture<Optional<T>> future : futures) {
+            future.thenAccept(result -> result.ifPresent(winner::complete));
+        }
+        // Nobody found it: finish with null once every site has answered or failed
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, e) -> winner.complete(null));
+
+        try {
+            return Optional.ofNullable(winner.get(siteTimeoutMs, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            log.warn("No Jira site answered within {} ms", siteTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Jira fan-out failed: {}", e.getCause().getMessage());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Runs the task on every site and waits for all of them. Meant for streaming,
+     * where each page request is already bounded by the HTTP client timeouts.
+     */
+    public void each(List<JiraConnection> connections, Consumer<JiraConnection> task) {
+        List<CompletableFuture<Boolean>> futures = submit(connections, connection -> {
+            task.accept(connection);
+            return true;
+        });
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.warn("Jira site {} failed: {}", connections.get(i).getId(), e.getCause().getMessage());
+            }
+        }
+    }
+
+    private <T> List<CompletableFuture<T>> submit(List<JiraConnection> connections, Function<JiraConnection, T> task) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(connections.size());
+        for (JiraConnection connection : connections) {
+            if (connections.size() == 1) {
+                // Nothing to overlap with, skip the thread hop
+                futures.add(runInline(connection, task));
+                continue;
+            }
+            try {
+                futures.add(CompletableFuture.supplyAsync(() -> task.apply(connection), executor));
+            } catch (TaskRejectedException e) {
+                log.warn("Jira fan-out pool is full, querying site {} inline", connection.getId());
+                futures.add(runInline(connection, task));
+            }
+        }
+        return futures;
+    }
+
+    private static <T> CompletableFuture<T> runInline(JiraConnection connection, Function<JiraConnection, T> task) {
+        try {
+            return CompletableFuture.completedFuture(task.apply(connection));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T await(JiraConnection connection, CompletableFuture<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Jira site {} ({}) did not answer within {} ms", connection.getId(),
+                    connection.getBaseUrl() != null ? connection.getBaseUrl() : connection.getDomainUrl(), siteTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Jira site {} failed: {}", connection.getId(), e.getCause().getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.be.service.impl;
+
+import com.example.be.dto.JiraIssueDetails;
+import com.example.be.model.JiraConnection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Resolves many issues with {@code POST /rest/api/3/issue/bulkfetch}, one round
+ * trip per {@value #MAX_ISSUES} keys.
+ * If the site rejects bulk fetch, falls back to individual GETs run in parallel
+ * on {@code jiraFetchExecutor}.
+ */
+@Component
+@Slf4j
+public class JiraIssueBulkFetcher {
+
+    // Jira's limit for one bulkfetch request
+    static final int MAX_ISSUES = 100;
+
+    private static final List<String> FIELDS = List.of(JiraConnectionServiceImpl.CACHE_FIELDS.split(","));
+
+    private final RestTemplate restTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final JiraIssueCache jiraIssueCache;
+
+    @Value("${jira.bulk.timeout-ms:10000}")
+    private long timeoutMs;
+
+    public JiraIssueBulkFetcher(RestTemplate restTemplate,
+            @Qualifier("jiraFetchExecutor") ThreadPoolTaskExecutor executor,
+            JiraIssueCache jiraIssueCache) {
+        this.restTemplate = restTemplate;
+        this.executor = executor;
+        this.jiraIssueCache = jiraIssueCache;
+    }
+
+    /**
+     * Returns details keyed by issue key, in request order. Keys Jira does not
+     * know (or the user cannot see) are left out.
+     */
+    public Map<String, JiraIssueDetails> fetch(JiraConnection connection, String siteUrl, HttpHeaders headers,
+            List<String> issueKeys, Function<JsonNode, JiraIssueDetails> parser) {
+        List<String> keys = issueKeys.stream()
+                .filter(key -> key != null && !key.isBlank())
+                .map(key -> key.trim().toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+
+        Map<String, JiraIssueDetails> found = new LinkedHashMap<>(jiraIssueCache.findAll(connection, keys));
+        List<String> missing = keys.stream().filter(key -> !found.containsKey(key)).toList();
+
+        if (!missing.isEmpty()) {
+            List<JsonNode> issues = new ArrayList<>();
+            // One bulkfetch per MAX_ISSUES keys
+            for (int start = 0; start < missing.size(); start += MAX_ISSUES) {
+                List<String> batch = missing.subList(start, Math.min(start + MAX_ISSUES, missing.size()));
+                try {
+                    issues.addAll(bulkFetch(siteUrl, headers, batch));
+                } catch (Exception e) {
+                    log.warn("Jira bulkfetch failed ({}), fetching {} issues individually", e.getMessage(), batch.size());
+                    issues.addAll(fetchIndividually(siteUrl, headers, batch));
+                }
+            }
+
+            for (JsonNode issue : issues) {
+                JiraIssueDetails details = parser.apply(issue);
+                if (details != null) {
+                    found.put(issue.path("key").asText(), details);
+                }
+            }
+            try {
+                jiraIssueCache.upsert(connection.getId(), issues, parser);
+            } catch (Exception e) {
+                log.warn("Could not cache {} fetched Jira issues: {}", issues.size(), e.getMessage());
+            }
+        }
+
+        // Restore request order; cache hits and fetched issues were added separately
+        Map<String, JiraIssueDetails> ordered = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (found.containsKey(key)) {
+                ordered.put(key, found.get(key));
+            }
+        }
+        log.info("Resolved {}/{} Jira issues ({} from cache)", ordered.size(), keys.size(), keys.size() - missing.size());
+        return ordered;
+    }
+
+    private List<JsonNode> bulkFetch(String siteUrl, HttpHeaders headers, List<String> keys) {
+        HttpHeaders jsonHeaders = new HttpHeaders();
+        jsonHeaders.addAll(headers);
+        jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> body = Map.of("issueIdsOrKeys", keys, "fields", FIELDS);
+        ResponseEntity<JsonNode> response = restTemplate.exchange(
+                siteUrl + "/rest/api/3/issue/bulkfetch",
+                HttpMethod.POST,
+                new HttpEntity<>(body, jsonHeaders),
+                JsonNode.class);
+
+        JsonNode responseBody = response.getBody();
+        List<JsonNode> issues = new ArrayList<>();
+        if (responseBody != null) {
+            responseBody.path("issues").forEach(issues::add);
+            if (responseBody.path("issueErrors").size() > 0) {
+                log.info("Jira bulkfetch skipped {} issues", responseBody.path("issueErrors").size());
+            }
+        }
+        return issues;
+    }
+
+    private List<JsonNode> fetchIndividually(String siteUrl, HttpHeaders headers, List<String> keys) {
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        String fields = String.join(",", FIELDS);
+
+        List<CompletableFuture<JsonNode>> futures = keys.stream()
+                .map(key -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return restTemplate.exchange(
+                                siteUrl + "/rest/api/3/issue/{ticketId}?fields={fields}",
+                                HttpMethod.GET,
+                                entity,
+                                JsonNode.class,
+                                Map.of("ticketId", key, "fields", fields)).getBody();
+                    } catch (Exception e) {
+                        log.warn("Failed to fetch Jira issue {}: {}", key, e.getMessage());
+                        return null;
+                    }
+                }, executor))
+                .toList();
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Timed out fetching Jira issues individually after {} ms", timeoutMs);
+        }
+
+        List<JsonNode> issues = new ArrayList<>();
+        for (CompletableFuture<JsonNode> future : futures) {
+            JsonNode issue = future.getNow(null);
+            if (issue != null && issue.has("key")) {
+                issues.add(issue);
+            } else {
+                future.cancel(true);
+            }
+        }
+        return issues;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.be.service.impl;
+
+import com.example.be.config.JiraCacheProperties;
+import com.example.be.dto.JiraIssueDetails;
+import com.example.be.model.JiraConnection;
+import com.example.be.model.JiraIssue;
+import com.example.be.repository.JiraIssueRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read/write access to the local {@code jira_issues} copy. Reads only answer
+ * while the connection's last sync is within {@code jira.cache.max-staleness}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JiraIssueCache {
+
+    private final JiraIssueRepository jiraIssueRepository;
+    private final JiraCacheProperties properties;
+    private final JiraIssueTypeaheadIndex typeaheadIndex;
+
+    public boolean isFresh(JiraConnection connection) {
+        if (!properties.isEnabled() || connection.getLastIssueSyncAt() == null) {
+            return false;
+        }
+        long ageMillis = System.currentTimeMillis() - connection.getLastIssueSyncAt().getTime();
+        return ageMillis <= properties.getMaxStaleness().toMillis();
+    }
+
+    public Optional<JiraIssueDetails> find(JiraConnection connection, String idOrKey) {
+        if (!isFresh(connection)) {
+            return Optional.empty();
+        }
+        return jiraIssueRepository.findByConnectionIdAndIssueKey(connection.getId(), idOrKey)
+                .or(() -> jiraIssueRepository.findByConnectionIdAndIssueId(connection.getId(), idOrKey))
+                .map(this::toDetails);
+    }
+
+    /**
+     * Cached details for the given keys, keyed by issue key. Keys that are not
+     * cached (or any key while the cache is stale) are simply absent.
+     */
+    public Map<String, JiraIssueDetails> findAll(JiraConnection connection, Collection<String> issueKeys) {
+        if (!isFresh(connection) || issueKeys.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, JiraIssueDetails> found = new HashMap<>();
+        for (JiraIssue issue : jiraIssueRepository.findAllByConnectionIdAndIssueKeyIn(connection.getId(), issueKeys)) {
+            found.put(issue.getIssueKey(), toDetails(issue));
+        }
+        return found;
+    }
+
+    public Optional<Map<String, String>> findAllKeys(JiraConnection connection) {
+        if (!isFresh(connection)) {
+            return Optional.empty();
+        }
+        Map<String, String> idToKeyMap = new HashMap<>();
+        for (JiraIssueRepository.IssueKeyView issue : jiraIssueRepository.findAllByConnectionId(connection.getId())) {
+            idToKeyMap.put(issue.getIssueId(), issue.getIssueKey());
+        }
+        return Optional.of(idToKeyMap);
+    }
+
+    /**
+     * Inserts or updates a batch of Jira issue nodes with one lookup query.
+     */
+    public List<JiraIssue> upsert(UUID connectionId, List<JsonNode> issues, Function<JsonNode, JiraIssueDetails> parser) {
+        if (!properties.isEnabled() || issues.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> keys = issues.stream().map(issue -> issue.path("key").asText()).toList();
+        Map<String, JiraIssue> existing = jiraIssueRepository.findAllByConnectionIdAndIssueKeyIn(connectionId, keys)
+                .stream()
+                .collect(Collectors.toMap(JiraIssue::getIssueKey, Function.identity(), (a, b) -> a));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<JiraIssue> toSave = new ArrayList<>(issues.size());
+        for (JsonNode issue : issues) {
+            String key = issue.path("key").asText();
+            JiraIssueDetails details = parser.apply(issue);
+            JiraIssue entity = existing.getOrDefault(key, JiraIssue.builder()
+                    .connectionId(connectionId)
+                    .issueKey(key)
+                    .build());
+            entity.setIssueId(issue.path("id").asText());
+            entity.setStatus(issue.path("fields").path("status").path("name").asText(null));
+            entity.setJiraUpdated(issue.path("fields").path("updated").asText(null));
+            if (details != null) {
+                entity.setSummary(details.getTitle());
+                entity.setDescription(details.getDescription());
+                entity.setAcceptanceCriteria(details.getAcceptanceCriteria() != null
+                        ? String.join("\n", details.getAcceptanceCriteria())
+                        : null);
+            }
+            entity.setSyncedAt(now);
+            toSave.add(entity);
+        }
+        List<JiraIssue> saved = jiraIssueRepository.saveAll(toSave);
+        typeaheadIndex.update(connectionId, saved);
+        return saved;
+    }
+
+    public void delete(UUID connectionId, String issueIdOrKey) {
+        jiraIssueRepository.deleteByConnectionIdAndIssueKey(connectionId, issueIdOrKey);
+        jiraIssueRepository.deleteByConnectionIdAndIssueId(connectionId, issueIdOrKey);
+        typeaheadIndex.remove(connectionId, issueIdOrKey);
+    }
+
+    /**
+     * Marks a completed sync whose issues went through {@link #upsert} on this node.
+     */
+    public void markSynced(UUID connectionId, Date syncedAt) {
+        typeaheadIndex.synced(connectionId, syncedAt);
+    }
+
+    public JiraIssueDetails toDetails(JiraIssue issue) {
+        List<String> acceptanceCriteria = issue.getAcceptanceCriteria() == null || issue.getAcceptanceCriteria().isEmpty()
+                ? new ArrayList<>()
+                : new ArrayList<>(Arrays.asList(issue.getAcceptanceCriteria().split("\n")));
+        return new JiraIssueDetails(issue.getSummary(), issue.getDescription(), acceptanceCriteria);
+    }
+}
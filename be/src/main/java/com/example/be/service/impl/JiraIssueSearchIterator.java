@@ -0,0 +1,94 @@
+package com.example.be.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily walks every page of {@code /rest/api/3/search/jql} using
+ * {@code nextPageToken}. Only one page of issues is held in memory at a time.
+ */
+@Slf4j
+public class JiraIssueSearchIterator implements Iterator<JsonNode> {
+
+    private static final String FIRST_PAGE =
+            "/rest/api/3/search/jql?jql={jql}&maxResults={maxResults}&fields={fields}";
+    private static final String NEXT_PAGE = FIRST_PAGE + "&nextPageToken={nextPageToken}";
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final HttpEntity<Void> entity;
+    private final Map<String, Object> uriVariables = new HashMap<>();
+
+    private final Deque<JsonNode> page = new ArrayDeque<>();
+    private String nextPageToken;
+    private boolean lastPage;
+    private int pagesFetched;
+
+    public JiraIssueSearchIterator(RestTemplate restTemplate, String baseUrl, HttpHeaders headers,
+            String jql, String fields, int pageSize) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+        this.entity = new HttpEntity<>(headers);
+        uriVariables.put("jql", jql);
+        uriVariables.put("fields", fields);
+        uriVariables.put("maxResults", pageSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (page.isEmpty() && !lastPage) {
+            fetchPage();
+        }
+        return !page.isEmpty();
+    }
+
+    @Override
+    public JsonNode next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.poll();
+    }
+
+    private void fetchPage() {
+        String template = FIRST_PAGE;
+        if (nextPageToken != null) {
+            uriVariables.put("nextPageToken", nextPageToken);
+            template = NEXT_PAGE;
+        }
+
+        ResponseEntity<JsonNode> response = restTemplate.exchange(
+                baseUrl + template,
+                HttpMethod.GET,
+                entity,
+                JsonNode.class,
+                uriVariables);
+        pagesFetched++;
+
+        JsonNode body = response.getBody();
+        JsonNode issues = body != null ? body.get("issues") : null;
+        if (issues != null && issues.isArray()) {
+            for (JsonNode issue : issues) {
+                page.add(issue);
+            }
+        }
+
+        JsonNode token = body != null ? body.get("nextPageToken") : null;
+        nextPageToken = token != null && !token.isNull() ? token.asText() : null;
+        JsonNode isLast = body != null ? body.get("isLast") : null;
+        lastPage = nextPageToken == null || (isLast != null && isLast.asBoolean());
+        log.debug("Fetched Jira search page {} ({} issues, last={})", pagesFetched, page.size(), lastPage);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.be.service.impl;
+
+import com.example.be.config.JiraCacheProperties;
+import com.example.be.model.JiraConnection;
+import com.example.be.repository.JiraConnectionRepo;
+import com.example.be.service.JiraIssueSyncService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class JiraIssueSyncServiceImpl implements JiraIssueSyncService {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final JiraConnectionServiceImpl jiraConnectionService;
+    private final JiraConnectionRepo jiraConnectionRepo;
+    private final JiraIssueCache jiraIssueCache;
+    private final JiraCacheProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+
+    // A sweep still running on this node when the next one is due
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public JiraIssueSyncServiceImpl(JiraConnectionServiceImpl jiraConnectionService,
+            JiraConnectionRepo jiraConnectionRepo,
+            JiraIssueCache jiraIssueCache,
+            JiraCacheProperties properties,
+            @Qualifier("jiraIssueSyncExecutor") ThreadPoolTaskExecutor executor) {
+        this.jiraConnectionService = jiraConnectionService;
+        this.jiraConnectionRepo = jiraConnectionRepo;
+        this.jiraIssueCache = jiraIssueCache;
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    /**
+     * Hands the sweep over all connections to its own executor and returns, so the
+     * shared scheduler thread is not held for the length of a full sync.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${jira.cache.sync-interval-ms:300000}")
+    public void syncAll() {
+        if (!properties.isEnabled() || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    sweep();
+                } finally {
+                    sweeping.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            sweeping.set(false);
+            log.warn("Jira issue sync executor rejected the sweep: {}", e.getMessage());
+        }
+    }
+
+    private void sweep() {
+        // Every node runs the sweep; connections another node synced recently are left alone
+        Date recent = new Date(System.currentTimeMillis() - properties.getSyncIntervalMs() / 2);
+        for (JiraConnection connection : jiraConnectionRepo.findAll()) {
+            if (connection.getLastIssueSyncAt() != null && connection.getLastIssueSyncAt().after(recent)) {
+                continue;
+            }
+            try {
+                syncConnection(connection);
+            } catch (Exception e) {
+                log.warn("Jira issue sync failed for connection {}: {}", connection.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Pulls issues changed since the last sync, or every issue on the first run.
+     * Deletions are not visible through search and only arrive via the webhook.
+     * Skipped while another sync of the connection holds its lease, on any node.
+     */
+    @Override
+    public void syncConnection(JiraConnection connection) {
+        Date startedAt = new Date();
+        Date leaseUntil = new Date(startedAt.getTime() + properties.getSyncLease().toMillis());
+        if (jiraConnectionRepo.claimIssueSync(connection.getId(), startedAt, leaseUntil) == 0) {
+            log.debug("Jira issue sync already running for connection {}", connection.getId());
+            return;
+        }
+        try {
+            String jql = syncJql(connection, startedAt);
+
+            List<JsonNode> batch = new ArrayList<>(BATCH_SIZE);
+            int synced = 0;
+            JiraIssueSearchIterator issues = jiraConnectionService.searchIssues(
+                    connection, JiraConnectionServiceImpl.CACHE_FIELDS, jql);
+            while (issues.hasNext()) {
+                batch.add(issues.next());
+                if (batch.size() == BATCH_SIZE) {
+                    synced += flush(connection, batch);
+                }
+            }
+            synced += flush(connection, batch);
+
+            jiraConnectionRepo.updateLastIssueSyncAt(connection.getId(), startedAt);
+            connection.setLastIssueSyncAt(startedAt);
+            jiraIssueCache.markSynced(connection.getId(), startedAt);
+            log.info("Synced {} Jira issues for connection {}", synced, connection.getId());
+        } finally {
+            jiraConnectionRepo.releaseIssueSync(connection.getId(), leaseUntil);
+        }
+    }
+
+    private String syncJql(JiraConnection connection, Date now) {
+        String projectClause = jiraConnectionService.projectClause(connection);
+        if (connection.getLastIssueSyncAt() == null) {
+            return projectClause.isEmpty() ? "ORDER BY created DESC" : projectClause + " ORDER BY created DESC";
+        }
+
+        // Relative JQL avoids guessing the Jira user's timezone
+        long minutes = (now.getTime() - connection.getLastIssueSyncAt().getTime()) / 60_000
+                + properties.getSyncOverlap().toMinutes() + 1;
+        String updatedClause = "updated >= -" + minutes + "m";
+        return (projectClause.isEmpty() ? updatedClause : projectClause + " AND " + updatedClause)
+                + " ORDER BY updated ASC";
+    }
+
+    private int flush(JiraConnection connection, List<JsonNode> batch) {
+        int size = batch.size();
+        if (size > 0) {
+            jiraIssueCache.upsert(connection.getId(), batch, jiraConnectionService::extractIssueDetails);
+            batch.clear();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signatureHeader) {
+        String secret = properties.getWebhookSecret();
+        if (secret == null || secret.isBlank() || signatureHeader == null || !signatureHeader.startsWith("sha256=")) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            byte[] actual = HexFormat.of().parseHex(signatureHeader.substring("sha256=".length()));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (Exception e) {
+            log.warn("Could not verify Jira webhook signature: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean applyWebhook(UUID connectionId, JsonNode payload) {
+        if (!jiraConnectionRepo.existsById(connectionId)) {
+            return false;
+        }
+        String event = payload.path("webhookEvent").asText();
+        JsonNode issue = payload.path("issue");
+        if (!issue.has("key")) {
+            log.debug("Ignoring Jira webhook {} without an issue", event);
+            return true;
+        }
+
+        if ("jira:issue_deleted".equals(event)) {
+            jiraIssueCache.delete(connectionId, issue.path("key").asText());
+            log.info("Removed Jira issue {} from cache for connection {}", issue.path("key").asText(), connectionId);
+        } else if ("jira:issue_created".equals(event) || "jira:issue_updated".equals(event)) {
+            jiraIssueCache.upsert(connectionId, List.of(issue), jiraConnectionService::extractIssueDetails);
+            log.info("Updated Jira issue {} in cache for connection {}", issue.path("key").asText(), connectionId);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.be.service.impl;
+
+import com.example.be.config.JiraCacheProperties;
+import com.example.be.dto.JiraIssueSummary;
+import com.example.be.model.JiraConnection;
+import com.example.be.model.JiraIssue;
+import com.example.be.repository.JiraIssueRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory typeahead over issue keys and summaries, one index per connection.
+ * Built lazily from {@code jira_issues} on the first query and kept current by
+ * {@link JiraIssueCache} as syncs and webhooks write issues on this node. Writes
+ * made on other nodes are picked up by rebuilding: once the connection's
+ * {@code lastIssueSyncAt} moves past what the index was built from, and after
+ * {@code jira.cache.typeahead-ttl} for webhook changes, which do not move it.
+ *
+ * <p>Keys are matched by prefix (also on the number alone, {@code 123} finds
+ * {@code PROJ-123}); summaries by substring through a trigram index. Updated
+ * issues are re-appended, so higher document ids are more recently changed and
+ * are scanned first.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JiraIssueTypeaheadIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    // Verified summary matches gathered per requested result before ranking
+    private static final int CANDIDATES_PER_RESULT = 20;
+
+    private final JiraIssueRepository jiraIssueRepository;
+    private final JiraCacheProperties properties;
+
+    private final Map<UUID, ConnectionIndex> indexes = new ConcurrentHashMap<>();
+
+    public List<JiraIssueSummary> search(JiraConnection connection, String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return index(connection).search(normalized, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * Builds the connection's index ahead of its first query.
+     */
+    public void warm(JiraConnection connection) {
+        index(connection);
+    }
+
+    /**
+     * Upper-cased project keys of the connection's synced issues.
+     */
+    public Set<String> projects(JiraConnection connection) {
+        return index(connection).projects();
+    }
+
+    /**
+     * Records a sync this node applied through {@link #update}, so the index is
+     * not rebuilt for the {@code lastIssueSyncAt} it wrote itself.
+     */
+    public void synced(UUID connectionId, Date syncedAt) {
+        ConnectionIndex index = indexes.get(connectionId);
+        if (index != null) {
+            index.synced(syncedAt);
+        }
+    }
+
+    // The loaded index, replaced by a fresh one when it may miss another node's writes
+    private ConnectionIndex index(JiraConnection connection) {
+        UUID connectionId = connection.getId();
+        ConnectionIndex index = indexes.computeIfAbsent(connectionId, id -> new ConnectionIndex());
+        if (index.isStale(connection.getLastIssueSyncAt(), properties.getTypeaheadTtl().toMillis())) {
+            ConnectionIndex fresh = new ConnectionIndex();
+            index = indexes.replace(connectionId, index, fresh)
+                    ? fresh
+                    : indexes.computeIfAbsent(connectionId, id -> new ConnectionIndex());
+        }
+        index.ensureLoaded(connectionId, connection.getLastIssueSyncAt());
+        return index;
+    }
+
+    /**
+     * Applies saved issues to an index that has already been built. Indexes that
+     * do not exist yet will read the rows when they are first queried.
+     */
+    public void update(UUID connectionId, Collection<JiraIssue> issues) {
+        ConnectionIndex index = indexes.get(connectionId);
+        if (index != null) {
+            index.put(issues);
+        }
+    }
+
+    public void remove(UUID connectionId, String issueIdOrKey) {
+        ConnectionIndex index = indexes.get(connectionId);
+        if (index != null) {
+            index.remove(issueIdOrKey);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Three UTF-16 chars packed into one long
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static final class Doc {
+        final JiraIssueSummary issue;
+        // Lower-cased "key summary", the text summary matches are checked against
+        final String text;
+
+        Doc(JiraIssueSummary issue) {
+            this.issue = issue;
+            this.text = normalize(issue.getKey()) + " " + normalize(issue.getSummary());
+        }
+    }
+
+    // Growable int array; postings stay sorted because doc ids only grow
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private final class ConnectionIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final List<Doc> docs = new ArrayList<>();
+        private final Map<String, Integer> docByKey = new HashMap<>();
+        private final Map<String, String> keyById = new HashMap<>();
+        private final NavigableMap<String, Integer> keys = new TreeMap<>();
+        private final Set<String> projects = new HashSet<>();
+        private final Map<Long, Postings> grams = new HashMap<>();
+        private int removed;
+        private volatile boolean loaded;
+        private volatile long loadedAt;
+        // lastIssueSyncAt of the connection when the rows were read
+        private volatile Date syncedAt;
+
+        boolean isStale(Date lastIssueSyncAt, long ttlMillis) {
+            if (!loaded) {
+                return false;
+            }
+            Date built = syncedAt;
+            return (lastIssueSyncAt != null && (built == null || lastIssueSyncAt.after(built)))
+                    || (ttlMillis > 0 && System.currentTimeMillis() - loadedAt > ttlMillis);
+        }
+
+        void synced(Date at) {
+            Date built = syncedAt;
+            if (at != null && (built == null || at.after(built))) {
+                syncedAt = at;
+            }
+        }
+
+        void ensureLoaded(UUID connectionId, Date lastIssueSyncAt) {
+            if (loaded) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    long start = System.currentTimeMillis();
+                    syncedAt = lastIssueSyncAt;
+                    loadedAt = start;
+                    for (JiraIssueRepository.TypeaheadView row : jiraIssueRepository.findTypeaheadByConnectionId(connectionId)) {
+                        add(JiraIssueSummary.builder()
+                                .id(row.getIssueId())
+                                .key(row.getIssueKey())
+                                .summary(row.getSummary())
+                                .status(row.getStatus())
+                                .updated(row.getJiraUpdated())
+                                .build());
+                    }
+                    loaded = true;
+                    log.info("Built typeahead index for connection {}: {} issues in {} ms",
+                            connectionId, docByKey.size(), System.currentTimeMillis() - start);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Set<String> projects() {
+            lock.readLock().lock();
+            try {
+                Set<String> upper = new HashSet<>();
+                projects.forEach(project -> upper.add(project.toUpperCase(Locale.ROOT)));
+                return upper;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(Collection<JiraIssue> issues) {
+            lock.writeLock().lock();
+            try {
+                for (JiraIssue issue : issues) {
+                    add(JiraIssueSummary.builder()
+                            .id(issue.getIssueId())
+                            .key(issue.getIssueKey())
+                            .summary(issue.getSummary())
+                            .status(issue.getStatus())
+                            .updated(issue.getJiraUpdated())
+                            .build());
+                }
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String issueIdOrKey) {
+            lock.writeLock().lock();
+            try {
+                String key = keyById.getOrDefault(issueIdOrKey, issueIdOrKey);
+                Integer docId = docByKey.remove(key);
+                if (docId != null) {
+                    drop(docId);
+                }
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Caller holds the write lock
+        private void add(JiraIssueSummary issue) {
+            if (issue.getKey() == null) {
+                return;
+            }
+            Integer previous = docByKey.get(issue.getKey());
+            if (previous != null) {
+                drop(previous);
+            }
+
+            int docId = docs.size();
+            Doc doc = new Doc(issue);
+            docs.add(doc);
+            docByKey.put(issue.getKey(), docId);
+            if (issue.getId() != null) {
+                keyById.put(issue.getId(), issue.getKey());
+            }
+            String lowerKey = normalize(issue.getKey());
+            keys.put(lowerKey, docId);
+            int dash = lowerKey.indexOf('-');
+            if (dash > 0) {
+                projects.add(lowerKey.substring(0, dash));
+            }
+
+            Set<Long> seen = new HashSet<>();
+            for (int i = 0; i + 3 <= doc.text.length(); i++) {
+                long gram = trigram(doc.text, i);
+                if (seen.add(gram)) {
+                    grams.computeIfAbsent(gram, g -> new Postings()).add(docId);
+                }
+            }
+        }
+
+        // Leaves a tombstone; postings are cleaned up by compaction
+        private void drop(int docId) {
+            Doc doc = docs.get(docId);
+            if (doc == null) {
+                return;
+            }
+            docs.set(docId, null);
+            keys.remove(normalize(doc.issue.getKey()), docId);
+            if (doc.issue.getId() != null) {
+                keyById.remove(doc.issue.getId(), doc.issue.getKey());
+            }
+            removed++;
+        }
+
+        private void compactIfNeeded() {
+            if (removed < 1_000 || removed < docs.size() / 3) {
+                return;
+            }
+            List<Doc> live = docs.stream().filter(doc -> doc != null).toList();
+            docs.clear();
+            docByKey.clear();
+            keyById.clear();
+            keys.clear();
+            grams.clear();
+            removed = 0;
+            live.forEach(doc -> add(doc.issue));
+        }
+
+        List<JiraIssueSummary> search(String query, int limit) {
+            lock.readLock().lock();
+            try {
+                // Ranked: 0 exact key, 1 key prefix, 2 summary prefix, 3 word start, 4 substring
+                Map<Integer, Integer> ranks = new HashMap<>();
+                matchKeys(query, limit, ranks);
+                if (query.length() >= 3) {
+                    matchSummaries(query, limit * CANDIDATES_PER_RESULT, ranks);
+                }
+
+                return ranks.entrySet().stream()
+                        .sorted(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue)
+                                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()))
+                        .limit(limit)
+                        .map(entry -> docs.get(entry.getKey()).issue)
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void matchKeys(String query, int limit, Map<Integer, Integer> ranks) {
+            Set<String> prefixes = new LinkedHashSet<>();
+            prefixes.add(query);
+            if (Character.isDigit(query.charAt(0))) {
+                for (String project : projects) {
+                    prefixes.add(project + "-" + query);
+                }
+            }
+            for (String prefix : prefixes) {
+                int found = 0;
+                for (Map.Entry<String, Integer> entry : keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+                    ranks.merge(entry.getValue(), entry.getKey().equals(prefix) ? 0 : 1, Math::min);
+                    if (++found >= limit) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void matchSummaries(String query, int maxCandidates, Map<Integer, Integer> ranks) {
+            // Candidates come from the query's rarest trigram; the substring check is exact
+            Postings rarest = null;
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                Postings postings = grams.get(trigram(query, i));
+                if (postings == null) {
+                    return;
+                }
+                if (rarest == null || postings.size < rarest.size) {
+                    rarest = postings;
+                }
+            }
+
+            // Newest first, so a capped scan still returns recently changed issues
+            int found = 0;
+            for (int i = rarest.size - 1; i >= 0 && found < maxCandidates; i--) {
+                int docId = rarest.ids[i];
+                Doc doc = docs.get(docId);
+                int at = doc == null ? -1 : doc.text.indexOf(query);
+                if (at < 0) {
+                    continue;
+                }
+                int summaryStart = doc.text.indexOf(' ') + 1;
+                int rank = at == summaryStart ? 2 : at == 0 || doc.text.charAt(at - 1) == ' ' ? 3 : 4;
+                ranks.merge(docId, rank, Math::min);
+                found++;
+            }
+        }
+    }
+}
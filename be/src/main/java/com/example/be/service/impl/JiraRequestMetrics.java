@@ -0,0 +1,96 @@
+package com.example.be.service.impl;
+
+import com.example.be.exception.JiraSiteUnavailableException;
+import com.example.be.util.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Times every call on the Jira {@code RestTemplate} as {@code prforge.jira.requests},
+ * tagged by endpoint, method and outcome. Endpoints are path templates with ids,
+ * keys and cloud ids replaced, so the site and issue never become tags. Calls
+ * made for a web request also count towards its {@code jira} Server-Timing.
+ */
+@Component
+public class JiraRequestMetrics implements ClientHttpRequestInterceptor {
+
+    // Path segments kept as-is: words like "issue" or "bulkfetch" and the API version
+    private static final Pattern LITERAL_SEGMENT = Pattern.compile("[a-z][a-z-]*|\\d");
+
+    private final MeterRegistry meterRegistry;
+
+    public JiraRequestMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            outcome = outcome(response.getStatusCode().value());
+            return response;
+        } catch (JiraSiteUnavailableException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            RequestTiming.record("jira", nanos);
+            Timer.builder("prforge.jira.requests")
+                    .description("Jira and Atlassian API calls")
+                    .tag("endpoint", endpoint(request.getURI().getPath()))
+                    .tag("method", request.getMethod().name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "server_error";
+        }
+        if (status == 429) {
+            return "rate_limited";
+        }
+        if (status >= 400) {
+            return "client_error";
+        }
+        return "success";
+    }
+
+    static String endpoint(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        StringBuilder endpoint = new StringBuilder(path.length());
+        String previous = "";
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            endpoint.append('/');
+            // OAuth calls are routed through /ex/jira/{cloudId}
+            if ("jira".equals(segment) && "ex".equals(previous)) {
+                endpoint.append(segment);
+            } else if ("/ex/jira/".contentEquals(endpoint)) {
+                endpoint.append("{cloudId}");
+            } else {
+                endpoint.append(LITERAL_SEGMENT.matcher(segment).matches() ? segment : "{id}");
+            }
+            previous = segment;
+        }
+        return endpoint.toString();
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.be.service.impl;
+
+import com.example.be.exception.JiraSiteUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Isolates Jira sites from each other on the shared Jira {@code RestTemplate}.
+ * Every site (host, or cloud id behind {@code api.atlassian.com}) gets:
+ * <ul>
+ * <li>a circuit breaker over its last {@code jira.guard.window-size} calls that
+ * opens when too many fail (I/O errors, 5xx) or are slow, rejects calls while
+ * open, and lets a few trial calls through after {@code open-seconds};</li>
+ * <li>a bulkhead capping concurrent requests to the site, held until the
+ * response is closed.</li>
+ * </ul>
+ * Rejected calls throw {@link JiraSiteUnavailableException} without touching the
+ * network. State is exported as {@code prforge.jira.site.*} metrics tagged by site.
+ */
+@Component
+@Slf4j
+public class JiraSiteGuard implements ClientHttpRequestInterceptor {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+
+    @Value("${jira.guard.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jira.guard.window-size:20}")
+    private int windowSize;
+
+    // Calls in the window before the failure rate is judged
+    @Value("${jira.guard.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${jira.guard.failure-rate-percent:50}")
+    private int failureRatePercent;
+
+    // Slower calls count as failures
+    @Value("${jira.guard.slow-call-ms:8000}")
+    private long slowCallMs;
+
+    @Value("${jira.guard.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${jira.guard.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${jira.guard.max-concurrent-per-site:10}")
+    private int maxConcurrentPerSite;
+
+    @Value("${jira.guard.max-wait-ms:500}")
+    private long maxWaitMs;
+
+    public JiraSiteGuard(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!enabled) {
+            return execution.execute(request, body);
+        }
+
+        Site site = sites.computeIfAbsent(siteKey(request.getURI()), Site::new);
+        boolean trial = site.admit();
+        if (!site.permits.tryAcquire()) {
+            try {
+                if (!site.permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                    site.reject(trial, "bulkhead_full");
+                    throw new JiraSiteUnavailableException(site.name,
+                            "Too many concurrent requests to Jira site " + site.name, 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                site.reject(trial, "interrupted");
+                throw new IOException("Interrupted waiting for Jira site " + site.name, e);
+            }
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            site.permits.release();
+            site.record(trial, true, "error");
+            throw e;
+        }
+
+        boolean serverError = response.getStatusCode().is5xxServerError();
+        boolean slow = System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        site.record(trial, serverError || slow, serverError ? "server_error" : slow ? "slow" : "success");
+        return new PermitReleasingResponse(response, site.permits);
+    }
+
+    // Atlassian Cloud OAuth calls all go to api.atlassian.com; the cloud id tells the sites apart
+    static String siteKey(URI uri) {
+        String host = uri.getHost() == null ? "unknown" : uri.getHost().toLowerCase(Locale.ROOT);
+        String path = uri.getPath();
+        if (path != null && path.startsWith("/ex/jira/")) {
+            int end = path.indexOf('/', "/ex/jira/".length());
+            return host + path.substring(0, end < 0 ? path.length() : end);
+        }
+        return host;
+    }
+
+    State state(String site) {
+        Site guarded = sites.get(site);
+        return guarded == null ? State.CLOSED : guarded.state;
+    }
+
+    private final class Site {
+        final String name;
+        final Semaphore permits;
+        // Outcomes of the last calls while closed, true = failed
+        final boolean[] window = new boolean[Math.max(1, windowSize)];
+        int windowIndex;
+        int windowCount;
+        int windowFailures;
+        volatile State state = State.CLOSED;
+        long openedAt;
+        int trialsStarted;
+        int trialsSucceeded;
+
+        Site(String name) {
+            this.name = name;
+            this.permits = new Semaphore(maxConcurrentPerSite, true);
+            Tags tags = Tags.of("site", name);
+            meterRegistry.gauge("prforge.jira.site.circuit.state", tags, this, site -> site.state.ordinal());
+            meterRegistry.gauge("prforge.jira.site.bulkhead.available", tags, permits, Semaphore::availablePermits);
+        }
+
+        /**
+         * Lets the call through or throws; true when it is one of the half-open trial calls.
+         */
+        synchronized boolean admit() {
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt >= TimeUnit.SECONDS.toMillis(openSeconds)) {
+                transition(State.HALF_OPEN);
+                trialsStarted = 0;
+                trialsSucceeded = 0;
+            }
+            if (state == State.CLOSED) {
+                return false;
+            }
+            if (state == State.HALF_OPEN && trialsStarted < halfOpenCalls) {
+                trialsStarted++;
+                return true;
+            }
+            count("rejected_open");
+            long retryAfter = Math.max(1, openSeconds - (System.currentTimeMillis() - openedAt) / 1000);
+            throw new JiraSiteUnavailableException(name, "Jira site " + name + " is unavailable, retry later", retryAfter);
+        }
+
+        // A trial call that never ran frees its slot for another
+        synchronized void reject(boolean trial, String outcome) {
+            if (trial && state == State.HALF_OPEN) {
+                trialsStarted--;
+            }
+            count(outcome);
+        }
+
+        synchronized void record(boolean trial, boolean failed, String outcome) {
+            count(outcome);
+            if (trial) {
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+                if (failed) {
+                    open();
+                } else if (++trialsSucceeded >= halfOpenCalls) {
+                    resetWindow();
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+            if (state != State.CLOSED) {
+                // Started before the circuit opened
+                return;
+            }
+
+            if (windowCount == window.length) {
+                if (window[windowIndex]) {
+                    windowFailures--;
+                }
+            } else {
+                windowCount++;
+            }
+            window[windowIndex] = failed;
+            if (failed) {
+                windowFailures++;
+            }
+            windowIndex = (windowIndex + 1) % window.length;
+
+            if (windowCount >= minimumCalls && windowFailures * 100 >= failureRatePercent * windowCount) {
+                open();
+            }
+        }
+
+        private void open() {
+            openedAt = System.currentTimeMillis();
+            transition(State.OPEN);
+        }
+
+        private void transition(State next) {
+            if (state != next) {
+                log.warn("Jira site {} circuit {} -> {} ({} of last {} calls failed)",
+                        name, state, next, windowFailures, windowCount);
+                state = next;
+            }
+        }
+
+        private void resetWindow() {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+
+        private void count(String outcome) {
+            meterRegistry.counter("prforge.jira.site.calls", "site", name, "outcome", outcome).increment();
+        }
+    }
+
+    // RestTemplate closes every response once read, which ends the site's bulkhead slot
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.be.service.impl;
+
+import com.example.be.model.JiraConnection;
+import com.example.be.repository.JiraConnectionRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+import tools.jackson.databind.JsonNode;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps Jira OAuth access tokens valid. Tokens are refreshed in the background
+ * shortly before they expire, by a scheduled sweep and opportunistically when a
+ * request sees a token inside the refresh window. Tokens belong to the OAuth
+ * grant (user and Atlassian account), not the site: every site connection of a
+ * grant holds the same rotating refresh token. At most one refresh per grant is
+ * in flight on a node, every caller shares its result, and the new tokens are
+ * written to all of the grant's connections. Across nodes, a refresh holds a row
+ * lock on the grant's connections and rereads the tokens once it has it, so a
+ * node that lost the race uses the winner's token instead of spending the
+ * already rotated refresh token.
+ */
+@Component
+@Slf4j
+public class JiraTokenManager {
+
+    private static final String REGISTRATION_ID = "jira";
+
+    private final RestTemplate restTemplate;
+    private final JiraConnectionRepo jiraConnectionRepo;
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    // Last failed refresh per grant, to back off from revoked refresh tokens
+    private final Map<String, Long> failedAt = new ConcurrentHashMap<>();
+
+    @Value("${jira.oauth.refresh-before-expiry-seconds:300}")
+    private long refreshBeforeExpirySeconds;
+
+    @Value("${jira.oauth.expired-wait-ms:3000}")
+    private long expiredWaitMs;
+
+    @Value("${jira.oauth.failure-backoff-seconds:300}")
+    private long failureBackoffSeconds;
+
+    public JiraTokenManager(RestTemplate restTemplate,
+            JiraConnectionRepo jiraConnectionRepo,
+            ClientRegistrationRepository clientRegistrationRepository,
+            @Qualifier("jiraTokenRefreshExecutor") ThreadPoolTaskExecutor executor,
+            PlatformTransactionManager transactionManager) {
+        this.restTemplate = restTemplate;
+        this.jiraConnectionRepo = jiraConnectionRepo;
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns a usable access token without blocking while the stored one is
+     * still valid. Only a token that has already expired (the sweep fell behind
+     * or the app was down) waits, bounded by {@code jira.oauth.expired-wait-ms}.
+     */
+    public String accessToken(JiraConnection connection) {
+        String current = connection.getOauthAccessToken();
+        Date expiresAt = connection.getOauthAccessTokenExpiresAt();
+        if (expiresAt == null || connection.getOauthRefreshToken() == null) {
+            return current;
+        }
+
+        long now = System.currentTimeMillis();
+        if (expiresAt.getTime() - now > refreshBeforeExpirySeconds * 1000) {
+            return current;
+        }
+
+        CompletableFuture<String> refresh = refreshAsync(connection);
+        if (expiresAt.getTime() > now || refresh == null) {
+            return current;
+        }
+        try {
+            return refresh.get(expiredWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return current;
+        } catch (Exception e) {
+            log.warn("Expired Jira token for connection {} could not be refreshed in time", connection.getId());
+            return current;
+        }
+    }
+
+    /**
+     * Starts a refresh unless one is already running for the connection's grant,
+     * or the last attempt failed within the back-off period. Returns the shared
+     * future, or null when no refresh was started.
+     */
+    public CompletableFuture<String> refreshAsync(JiraConnection connection) {
+        String grant = grantKey(connection);
+        Long lastFailure = failedAt.get(grant);
+        if (lastFailure != null && System.currentTimeMillis() - lastFailure < failureBackoffSeconds * 1000) {
+            return inFlight.get(grant);
+        }
+
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(grant, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(refresh(connection, grant));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(grant, future);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(grant, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Refreshes every grant with a token that expires within the refresh window,
+     * once per grant however many sites it covers.
+     */
+    @Scheduled(fixedDelayString = "${jira.oauth.refresh-sweep-ms:60000}")
+    public void refreshExpiring() {
+        Date cutoff = new Date(System.currentTimeMillis() + refreshBeforeExpirySeconds * 1000);
+        Set<String> grants = new HashSet<>();
+        for (JiraConnection connection
+                : jiraConnectionRepo.findAllByOauthRefreshTokenIsNotNullAndOauthAccessTokenExpiresAtBefore(cutoff)) {
+            if (grants.add(grantKey(connection))) {
+                refreshAsync(connection);
+            }
+        }
+    }
+
+    // Connections without an Atlassian account (never the case for OAuth logins) are their own grant
+    private static String grantKey(JiraConnection connection) {
+        return connection.getJiraAccountId() != null
+                ? connection.getUserId() + "/" + connection.getJiraAccountId()
+                : connection.getId().toString();
+    }
+
+    private String refresh(JiraConnection connection, String grant) {
+        ClientRegistration registration = clientRegistrationRepository.findByRegistrationId(REGISTRATION_ID);
+        if (registration == null) {
+            throw new IllegalStateException("No '" + REGISTRATION_ID + "' OAuth client registration");
+        }
+        // The lock is held until the new tokens are written
+        return transactionTemplate.execute(status -> refreshLocked(connection, grant, registration));
+    }
+
+    private String refreshLocked(JiraConnection connection, String grant, ClientRegistration registration) {
+        // The caller's copy may predate a refresh of the grant through another site or node
+        JiraConnection stored = lockLatest(connection);
+        if (stored.getOauthAccessTokenExpiresAt() != null && stored.getOauthAccessTokenExpiresAt().getTime()
+                - System.currentTimeMillis() > refreshBeforeExpirySeconds * 1000) {
+            copyTokens(stored.getOauthAccessToken(), stored.getOauthRefreshToken(),
+                    stored.getOauthAccessTokenExpiresAt(), connection);
+            failedAt.remove(grant);
+            return stored.getOauthAccessToken();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Accept", "application/json");
+        Map<String, String> body = Map.of(
+                "grant_type", "refresh_token",
+                "client_id", registration.getClientId(),
+                "client_secret", registration.getClientSecret(),
+                "refresh_token", stored.getOauthRefreshToken());
+
+        try {
+            ResponseEntity<JsonNode> response = restTemplate.exchange(
+                    registration.getProviderDetails().getTokenUri(),
+                    HttpMethod.POST,
+                    new HttpEntity<>(body, headers),
+                    JsonNode.class);
+
+            JsonNode token = response.getBody();
+            if (token == null || !token.hasNonNull("access_token")) {
+                throw new IllegalStateException("Token response without access_token");
+            }
+
+            String accessToken = token.get("access_token").asText();
+            // Atlassian rotates refresh tokens; keep the old one if none was returned
+            String refreshToken = token.path("refresh_token").asText(stored.getOauthRefreshToken());
+            Date expiresAt = new Date(System.currentTimeMillis() + token.path("expires_in").asLong(3600) * 1000);
+
+            int updated = connection.getJiraAccountId() != null
+                    ? jiraConnectionRepo.updateGrantTokens(connection.getUserId(), connection.getJiraAccountId(),
+                            accessToken, refreshToken, expiresAt)
+                    : jiraConnectionRepo.updateOAuthTokens(connection.getId(), accessToken, refreshToken, expiresAt);
+            copyTokens(accessToken, refreshToken, expiresAt, connection);
+            failedAt.remove(grant);
+
+            log.info("Refreshed Jira access token for grant {} ({} connection(s)), valid until {}",
+                    grant, updated, expiresAt);
+            return accessToken;
+        } catch (RuntimeException e) {
+            failedAt.put(grant, System.currentTimeMillis());
+            log.warn("Failed to refresh Jira access token for grant {}: {}", grant, e.getMessage());
+            throw e;
+        }
+    }
+
+    // Locks the grant's connections and reads its stored tokens; all of them hold the same ones
+    // unless a write was interrupted
+    private JiraConnection lockLatest(JiraConnection connection) {
+        List<JiraConnection> stored = connection.getJiraAccountId() != null
+                ? jiraConnectionRepo.lockGrant(connection.getUserId(), connection.getJiraAccountId())
+                : jiraConnectionRepo.lockById(connection.getId()).map(List::of).orElse(List.of());
+        return stored.stream()
+                .filter(candidate -> candidate.getOauthRefreshToken() != null)
+                .max(Comparator.comparing(JiraConnection::getOauthAccessTokenExpiresAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .orElse(connection);
+    }
+
+    private static void copyTokens(String accessToken, String refreshToken, Date expiresAt, JiraConnection connection) {
+        connection.setOauthAccessToken(accessToken);
+        connection.setOauthRefreshToken(refreshToken);
+        connection.setOauthAccessTokenExpiresAt(expiresAt);
+    }
+}
@@ -1,24 +1,112 @@
 package com.example.be.service.impl;
 
+import com.example.be.dto.UserIdentity;
 import com.example.be.exception.UsernameNotFoundException;
+import com.example.be.model.JiraConnection;
 import com.example.be.model.User;
+import com.example.be.repository.JiraConnectionRepo;
 import com.example.be.repository.UserRepository;
 import com.example.be.service.UserService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final JiraConnectionRepo jiraConnectionRepo;
 
     @Override
     public User findByProviderId(String id) {
         return userRepository.findByProviderId(id).orElseThrow(()->new UsernameNotFoundException("User not found"));
     }
 
+    @Override
+    public User updateSpeculativeSuggestions(String providerId, boolean enabled) {
+        User user = findByProviderId(providerId);
+        user.setSpeculativeSuggestions(enabled);
+        return userRepository.save(user);
+    }
+
     public boolean validateUserByProviderId(String providerId) {
         return userRepository.findByProviderId(providerId).isPresent();
     }
+
+    /**
+     * Works out the identity shown to the frontend. A Jira principal linked to a
+     * GitHub user is presented as that GitHub user.
+     */
+    @Override
+    public UserIdentity resolveIdentity(OAuth2User principal) {
+        Object githubIdObj = principal.getAttribute("id");
+        Object jiraAccountIdObj = principal.getAttribute("account_id");
+        String email = principal.getAttribute("email");
+
+        if (jiraAccountIdObj != null) {
+            // Logged in with Jira Principal
+            String jiraAccountId = String.valueOf(jiraAccountIdObj);
+            log.info("Principal is Jira User: {}", jiraAccountId);
+
+            // Check if this Jira account is linked to a GitHub user
+            Optional<User> githubUser = jiraConnectionRepo.findFirstByJiraAccountId(jiraAccountId)
+                    .map(JiraConnection::getUserId)
+                    .flatMap(userRepository::findByProviderId);
+            if (githubUser.isPresent()) {
+                // LINK FOUND: Mask as GitHub User
+                User user = githubUser.get();
+                log.info("Masking identity as GitHub User: {}", user.getName());
+                UserIdentity identity = identityOf(user, true);
+                if (identity.getEmail() == null) {
+                    identity.setEmail(email);
+                }
+                return identity;
+            }
+
+            // Standalone Jira login, or the linked user no longer exists
+            return UserIdentity.builder()
+                    .name(principal.getAttribute("name"))
+                    .avatarUrl(principal.getAttribute("picture"))
+                    .email(email)
+                    .id(jiraAccountId)
+                    .jiraConnected(true)
+                    .build();
+        }
+
+        // Logged in with GitHub Principal
+        log.info("Principal is GitHub User");
+        String name = principal.getAttribute("name");
+        if (name == null)
+            name = principal.getAttribute("login");
+        Object avatar = principal.getAttribute("avatar_url");
+        if (avatar == null)
+            avatar = principal.getAttribute("picture");
+
+        boolean jiraConnected = githubIdObj != null
+                && !jiraConnectionRepo.findAllByUserId(String.valueOf(githubIdObj)).isEmpty();
+        return UserIdentity.builder()
+                .name(name)
+                .avatarUrl(avatar != null ? avatar.toString() : null)
+                .email(email)
+                .id(githubIdObj instanceof Serializable id ? id : null)
+                .jiraConnected(jiraConnected)
+                .build();
+    }
+
+    @Override
+    public UserIdentity identityOf(User user, boolean jiraConnected) {
+        return UserIdentity.builder()
+                .name(user.getName())
+                .avatarUrl(user.getAvatarUrl())
+                .email(user.getEmail())
+                .id(user.getProviderId())
+                .jiraConnected(jiraConnected)
+                .build();
+    }
 }
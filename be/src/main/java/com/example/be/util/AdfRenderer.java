@@ -0,0 +1,410 @@
+package com.example.be.util;
+
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders Atlassian Document Format (Jira rich text) to plain text or markdown
+ * in one iterative pass over the tree, writing into a single buffer. Lines under
+ * an "Acceptance Criteria" heading or paragraph are collected in the same pass,
+ * up to the next heading or rule.
+ */
+public final class AdfRenderer {
+
+    public enum Format {
+        PLAIN,
+        MARKDOWN
+    }
+
+    public static final class Rendered {
+        private final String text;
+        private final List<String> acceptanceCriteria;
+
+        Rendered(String text, List<String> acceptanceCriteria) {
+            this.text = text;
+            this.acceptanceCriteria = acceptanceCriteria;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public List<String> getAcceptanceCriteria() {
+            return acceptanceCriteria;
+        }
+    }
+
+    private static final Rendered EMPTY = new Rendered("", List.of());
+
+    // Traversal state for one node: which child to visit next
+    private static final class Frame {
+        final JsonNode node;
+        final String type;
+        int next;
+
+        Frame(JsonNode node, String type) {
+            this.node = node;
+            this.type = type;
+        }
+    }
+
+    // One open list: ordered lists count their items
+    private static final class ListState {
+        final boolean ordered;
+        int number;
+
+        ListState(boolean ordered, int number) {
+            this.ordered = ordered;
+            this.number = number;
+        }
+    }
+
+    private final boolean markdown;
+    private final StringBuilder out = new StringBuilder(256);
+    // Raw text of the paragraph/heading being written, for acceptance criteria
+    private final StringBuilder blockText = new StringBuilder(64);
+    private final List<String> acceptanceCriteria = new ArrayList<>();
+    private final Deque<ListState> lists = new ArrayDeque<>();
+
+    private boolean atLineStart = true;
+    private String pendingMarker;
+    private int quoteDepth;
+    private int codeDepth;
+    private int tableDepth;
+    private int rowIndex;
+    private int cellIndex;
+    private boolean cellNeedsSpace;
+    private boolean inCriteria;
+
+    private AdfRenderer(Format format) {
+        this.markdown = format == Format.MARKDOWN;
+    }
+
+    public static Rendered render(JsonNode document, Format format) {
+        if (document == null || document.isNull() || document.isMissingNode()) {
+            return EMPTY;
+        }
+        if (document.isTextual()) {
+            // Pre-ADF (v2) descriptions are plain strings
+            return new Rendered(document.asText().trim(), List.of());
+        }
+        return new AdfRenderer(format).run(document);
+    }
+
+    public static String renderText(JsonNode document, Format format) {
+        return render(document, format).getText();
+    }
+
+    private Rendered run(JsonNode root) {
+        Deque<Frame> stack = new ArrayDeque<>();
+        stack.push(new Frame(root, root.path("type").asText()));
+        enter(stack.peek());
+
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            JsonNode content = frame.node.get("content");
+            if (content != null && content.isArray() && frame.next < content.size()) {
+                JsonNode child = content.get(frame.next++);
+                Frame childFrame = new Frame(child, child.path("type").asText());
+                stack.push(childFrame);
+                enter(childFrame);
+            } else {
+                stack.pop();
+                exit(frame, stack.peek());
+            }
+        }
+
+        int end = out.length();
+        while (end > 0 && Character.isWhitespace(out.charAt(end - 1))) {
+            end--;
+        }
+        out.setLength(end);
+        return new Rendered(out.toString(), acceptanceCriteria);
+    }
+
+    private void enter(Frame frame) {
+        JsonNode node = frame.node;
+        JsonNode attrs = node.path("attrs");
+        switch (frame.type) {
+            case "paragraph" -> {
+                if (tableDepth > 0 && cellNeedsSpace) {
+                    write(" ");
+                }
+                blockText.setLength(0);
+            }
+            case "heading" -> {
+                newLine();
+                blockText.setLength(0);
+                if (markdown) {
+                    int level = Math.max(1, Math.min(6, attrs.path("level").asInt(1)));
+                    write("#".repeat(level) + " ");
+                }
+            }
+            case "text" -> writeText(node);
+            case "hardBreak" -> {
+                if (tableDepth > 0) {
+                    write(" ");
+                } else {
+                    newLine();
+                }
+            }
+            case "bulletList" -> lists.push(new ListState(false, 0));
+            case "orderedList" -> lists.push(new ListState(true, attrs.path("order").asInt(1)));
+            case "listItem" -> {
+                newLine();
+                ListState list = lists.peek();
+                if (list == null) {
+                    pendingMarker = "- ";
+                } else if (list.ordered) {
+                    pendingMarker = list.number++ + ". ";
+                } else {
+                    pendingMarker = "- ";
+                }
+            }
+            case "codeBlock" -> {
+                newLine();
+                codeDepth++;
+                if (markdown) {
+                    write("```" + attrs.path("language").asText(""));
+                    newLine();
+                }
+            }
+            case "blockquote" -> {
+                newLine();
+                quoteDepth++;
+            }
+            case "rule" -> {
+                inCriteria = false;
+                newLine();
+                write(markdown ? "---" : "");
+                newLine();
+            }
+            case "table" -> {
+                newLine();
+                tableDepth++;
+                rowIndex = 0;
+            }
+            case "tableRow" -> {
+                newLine();
+                cellIndex = 0;
+            }
+            case "tableCell", "tableHeader" -> {
+                if (cellIndex > 0) {
+                    write(" | ");
+                } else if (markdown) {
+                    write("| ");
+                }
+                cellNeedsSpace = false;
+            }
+            case "expand", "nestedExpand" -> {
+                String title = attrs.path("title").asText("");
+                if (!title.isEmpty()) {
+                    newLine();
+                    write(markdown ? "**" + title + "**" : title);
+                    newLine();
+                }
+            }
+            case "mention" -> writeInline(attrs.path("text").asText(""));
+            case "emoji" -> writeInline(attrs.has("text") ? attrs.path("text").asText() : attrs.path("shortName").asText(""));
+            case "status" -> writeInline("[" + attrs.path("text").asText("") + "]");
+            case "inlineCard", "blockCard" -> writeInline(attrs.path("url").asText(""));
+            case "date" -> writeInline(attrs.path("timestamp").asText(""));
+            default -> {
+                // doc, panel, media, layouts and unknown nodes only contribute their children
+            }
+        }
+    }
+
+    private void exit(Frame frame, Frame parent) {
+        switch (frame.type) {
+            case "paragraph" -> {
+                if (tableDepth > 0) {
+                    cellNeedsSpace = true;
+                } else {
+                    endBlock(false);
+                    newLine();
+                }
+            }
+            case "heading" -> {
+                endBlock(true);
+                newLine();
+            }
+            case "bulletList", "orderedList" -> {
+                lists.pop();
+                newLine();
+            }
+            case "listItem" -> pendingMarker = null;
+            case "codeBlock" -> {
+                newLine();
+                if (markdown) {
+                    write("```");
+                    newLine();
+                }
+                codeDepth--;
+            }
+            case "blockquote" -> {
+                newLine();
+                quoteDepth--;
+            }
+            case "tableCell", "tableHeader" -> cellIndex++;
+            case "tableRow" -> {
+                if (markdown) {
+                    write(" |");
+                }
+                newLine();
+                if (markdown && rowIndex == 0) {
+                    write("|" + " --- |".repeat(Math.max(1, cellIndex)));
+                    newLine();
+                }
+                rowIndex++;
+            }
+            case "table" -> {
+                tableDepth--;
+                newLine();
+            }
+            default -> {
+            }
+        }
+
+        // Separate top-level blocks with a blank line in markdown
+        if (markdown && parent != null && "doc".equals(parent.type) && !"text".equals(frame.type)) {
+            newLine();
+            out.append('\n');
+        }
+    }
+
+    /**
+     * Called when a paragraph or heading ends; decides whether it opens, closes or
+     * belongs to the acceptance criteria section.
+     */
+    private void endBlock(boolean heading) {
+        String line = blockText.toString().trim();
+        blockText.setLength(0);
+        if (isCriteriaHeader(line)) {
+            inCriteria = true;
+        } else if (heading) {
+            inCriteria = false;
+        } else if (inCriteria && !line.isEmpty()) {
+            acceptanceCriteria.add(line);
+        }
+    }
+
+    private static boolean isCriteriaHeader(String line) {
+        if (line.length() < 19 || line.length() > 22) {
+            return false;
+        }
+        String normalized = line.toLowerCase(Locale.ROOT);
+        if (normalized.endsWith(":")) {
+            normalized = normalized.substring(0, normalized.length() - 1).trim();
+        }
+        return normalized.equals("acceptance criteria");
+    }
+
+    private void writeText(JsonNode node) {
+        String text = node.path("text").asText("");
+        if (text.isEmpty()) {
+            return;
+        }
+        blockText.append(text);
+        if (!markdown || codeDepth > 0) {
+            write(text);
+            return;
+        }
+
+        String prefix = "";
+        String suffix = "";
+        String href = null;
+        for (JsonNode mark : node.path("marks")) {
+            switch (mark.path("type").asText()) {
+                case "strong" -> {
+                    prefix = prefix + "**";
+                    suffix = "**" + suffix;
+                }
+                case "em" -> {
+                    prefix = prefix + "_";
+                    suffix = "_" + suffix;
+                }
+                case "strike" -> {
+                    prefix = prefix + "~~";
+                    suffix = "~~" + suffix;
+                }
+                case "code" -> {
+                    prefix = prefix + "`";
+                    suffix = "`" + suffix;
+                }
+                case "link" -> href = mark.path("attrs").path("href").asText(null);
+                default -> {
+                }
+            }
+        }
+        if (href != null) {
+            prefix = "[" + prefix;
+            suffix = suffix + "](" + href + ")";
+        }
+        write(prefix);
+        write(text);
+        write(suffix);
+    }
+
+    private void writeInline(String text) {
+        blockText.append(text);
+        write(text);
+    }
+
+    // Appends text, starting every new line with the current quote/list prefix
+    private void write(String text) {
+        int start = 0;
+        int length = text.length();
+        while (start < length) {
+            int newline = text.indexOf('\n', start);
+            int end = newline < 0 ? length : newline;
+            if (end > start) {
+                if (atLineStart) {
+                    writeLinePrefix();
+                }
+                out.append(text, start, end);
+            }
+            if (newline < 0) {
+                break;
+            }
+            out.append('\n');
+            atLineStart = true;
+            start = newline + 1;
+        }
+    }
+
+    private void writeLinePrefix() {
+        if (markdown) {
+            for (int i = 0; i < quoteDepth; i++) {
+                out.append("> ");
+            }
+        }
+        int depth = lists.size();
+        if (pendingMarker != null) {
+            indent(depth - 1);
+            out.append(pendingMarker);
+            pendingMarker = null;
+        } else if (codeDepth == 0) {
+            indent(depth);
+        }
+        atLineStart = false;
+    }
+
+    private void indent(int levels) {
+        for (int i = 0; i < levels; i++) {
+            out.append("  ");
+        }
+    }
+
+    private void newLine() {
+        if (!atLineStart) {
+            out.append('\n');
+            atLineStart = true;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.be.util;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decides which files of a compare are left out of the stored patches and the
+ * prompt: paths matching a glob (lockfiles, vendored directories, snapshots),
+ * patches over a size limit, and files that look generated or minified, the way
+ * GitHub linguist tells them apart from their first lines and line lengths.
+ * Only the patch is dropped; the file still counts in the compare stats.
+ */
+public final class DiffIgnoreRules {
+
+    public static final String PATTERN = "pattern";
+    public static final String SIZE = "size";
+    public static final String GENERATED = "generated";
+    public static final String MINIFIED = "minified";
+
+    public static final DiffIgnoreRules NONE = new DiffIgnoreRules(List.of(), 0, false);
+
+    // Lowercased markers linguist and code generators put at the top of a file
+    private static final List<String> GENERATED_MARKERS = List.of(
+            "@generated", "code generated", "do not edit", "<auto-generated", "autogenerated",
+            "this file was automatically generated", "this file is automatically generated");
+    private static final int HEADER_LINES = 10;
+
+    private static final List<String> MINIFIABLE = List.of(".js", ".mjs", ".cjs", ".css");
+    // Linguist treats JS/CSS with a longer average line as minified
+    private static final int MINIFIED_AVERAGE_LINE = 110;
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<String> globs;
+    private final long maxPatchChars;
+    private final boolean detectGenerated;
+
+    /**
+     * @param globs           Ant-style path globs, {@code **} matching any number of directories
+     * @param maxPatchChars   patches longer than this are dropped; 0 for no limit
+     * @param detectGenerated look for generated-file markers and minified code
+     */
+    public DiffIgnoreRules(List<String> globs, long maxPatchChars, boolean detectGenerated) {
+        this.globs = List.copyOf(globs);
+        this.maxPatchChars = maxPatchChars;
+        this.detectGenerated = detectGenerated;
+    }
+
+    /**
+     * Why the file is ignored, one of the constants above, or null to keep it.
+     * Cheapest checks first; only the generated and minified checks read the patch.
+     */
+    public String match(String filename, String patch) {
+        if (patch != null && maxPatchChars > 0 && patch.length() > maxPatchChars) {
+            return SIZE;
+        }
+        if (filename != null) {
+            for (String glob : globs) {
+                if (matcher.match(glob, filename)) {
+                    return PATTERN;
+                }
+            }
+        }
+        if (!detectGenerated || patch == null) {
+            return null;
+        }
+        if (hasGeneratedHeader(patch)) {
+            return GENERATED;
+        }
+        if (filename != null && isMinifiable(filename) && isMinified(patch)) {
+            return MINIFIED;
+        }
+        return null;
+    }
+
+    // Markers only count near the top of the file, so the first hunk has to start at line 1
+    private static boolean hasGeneratedHeader(String patch) {
+        if (!patch.startsWith("@@") || !startsAtFirstLine(patch)) {
+            return false;
+        }
+        int start = patch.indexOf('\n') + 1;
+        for (int line = 0; line < HEADER_LINES && start > 0 && start < patch.length(); line++) {
+            int end = patch.indexOf('\n', start);
+            String text = patch.substring(start, end < 0 ? patch.length() : end).toLowerCase(Locale.ROOT);
+            for (String marker : GENERATED_MARKERS) {
+                if (text.contains(marker)) {
+                    return true;
+                }
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    // "@@ -0,0 +1,20 @@" or "@@ -1,4 +1,6 @@"
+    private static boolean startsAtFirstLine(String patch) {
+        int plus = patch.indexOf(" +");
+        int close = patch.indexOf(" @@", 2);
+        if (plus < 0 || close < plus) {
+            return false;
+        }
+        String range = patch.substring(plus + 2, close);
+        int comma = range.indexOf(',');
+        return "1".equals(comma < 0 ? range : range.substring(0, comma));
+    }
+
+    private static boolean isMinifiable(String filename) {
+        String lower = filename.toLowerCase(Locale.ROOT);
+        return MINIFIABLE.stream().anyMatch(lower::endsWith);
+    }
+
+    // Average length of the added lines, walked without splitting the patch
+    private static boolean isMinified(String patch) {
+        long chars = 0;
+        int lines = 0;
+        int start = 0;
+        while (start < patch.length()) {
+            int end = patch.indexOf('\n', start);
+            if (end < 0) {
+                end = patch.length();
+            }
+            if (patch.charAt(start) == '+' && !patch.startsWith("+++", start)) {
+                chars += end - start - 1;
+                lines++;
+            }
+            start = end + 1;
+        }
+        return lines > 0 && chars / lines > MINIFIED_AVERAGE_LINE;
+    }
+}
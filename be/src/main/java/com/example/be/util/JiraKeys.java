@@ -0,0 +1,67 @@
+package com.example.be.util;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds Jira issue keys ({@code PROJ-1234}) in branch names and commit messages.
+ */
+public final class JiraKeys {
+
+    public static final int MAX_KEYS = 20;
+
+    // Project keys start with a letter and are 2-10 characters long
+    private static final Pattern KEY = Pattern.compile("(?<![A-Za-z0-9])([A-Z][A-Z0-9_]{1,9})-([1-9]\\d{0,6})(?!\\d)");
+    private static final Pattern BRANCH_KEY = Pattern.compile(KEY.pattern(), Pattern.CASE_INSENSITIVE);
+
+    // Look like issue keys but are standards and encodings
+    private static final Set<String> NOT_PROJECTS = Set.of(
+            "UTF", "SHA", "ISO", "RFC", "CVE", "CWE", "GPT", "HTTP", "TLS", "SSL", "JSR", "JEP", "PEP", "ES",
+            "ECMA", "IEEE", "AES", "RSA", "MD", "BASE", "LATIN", "WINDOWS");
+
+    private JiraKeys() {
+    }
+
+    /**
+     * Keys in a branch name. Branches are often lower-cased ({@code proj-12-fix-login}),
+     * so matching is case-insensitive and keys are returned upper-cased. That also
+     * turns names like {@code fix-123} or {@code release-2} into keys, so only keys
+     * of the given projects (upper-case project keys) are returned.
+     */
+    public static Set<String> fromBranch(String branch, Set<String> knownProjects) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (branch != null && !knownProjects.isEmpty()) {
+            collect(BRANCH_KEY.matcher(branch), keys);
+            keys.removeIf(key -> !knownProjects.contains(key.substring(0, key.indexOf('-'))));
+        }
+        return keys;
+    }
+
+    /**
+     * Keys in commit messages. Only upper-case keys count here, prose is too noisy otherwise.
+     */
+    public static Set<String> fromMessages(Collection<String> messages) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (messages != null) {
+            for (String message : messages) {
+                if (message != null && keys.size() < MAX_KEYS) {
+                    collect(KEY.matcher(message), keys);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static void collect(Matcher matcher, Set<String> keys) {
+        while (matcher.find() && keys.size() < MAX_KEYS) {
+            String project = matcher.group(1).toUpperCase(Locale.ROOT);
+            if (!NOT_PROJECTS.contains(project)) {
+                keys.add(project + "-" + matcher.group(2));
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.be.util;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Where the time of one HTTP request went: named phases (GitHub call, diff
+ * processing, Jira calls, repository queries, ...) with their total duration and
+ * count. The timing of the current request lives in a thread local, bound by
+ * {@code ServerTimingFilter} and carried onto the Jira executors by
+ * {@link #propagate(Runnable)}. Outside a timed request every method is a no-op.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private static final Span NO_OP = () -> {
+    };
+
+    /**
+     * A running phase; closing it adds the elapsed time.
+     */
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Phase {
+        private long nanos;
+        private int count;
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    // Guarded by this; phases also arrive from executor threads
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    private RequestTiming() {
+    }
+
+    public static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    public static Span start(String phase) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return NO_OP;
+        }
+        long start = System.nanoTime();
+        return () -> timing.add(phase, System.nanoTime() - start);
+    }
+
+    public static void record(String phase, long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(phase, nanos);
+        }
+    }
+
+    /**
+     * Runs the task with the submitting thread's timing bound, so work a request
+     * hands to an executor is still attributed to it. Usable as a TaskDecorator.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return task;
+        }
+        return () -> {
+            RequestTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public synchronized void add(String phase, long nanos) {
+        Phase entry = phases.computeIfAbsent(phase, name -> new Phase());
+        entry.nanos += nanos;
+        entry.count++;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public synchronized Map<String, Phase> phases() {
+        Map<String, Phase> copy = new LinkedHashMap<>();
+        phases.forEach((name, phase) -> {
+            Phase snapshot = new Phase();
+            snapshot.nanos = phase.nanos;
+            snapshot.count = phase.count;
+            copy.put(name, snapshot);
+        });
+        return copy;
+    }
+
+    /**
+     * {@code Server-Timing} header value: one metric per phase, in the order they
+     * first occurred, with the call count when there was more than one, then the
+     * time spent so far as {@code total}.
+     */
+    public String toHeader() {
+        StringBuilder header = new StringBuilder();
+        phases().forEach((name, phase) -> {
+            header.append(name).append(";dur=").append(millis(phase.nanos));
+            if (phase.count > 1) {
+                header.append(";desc=\"").append(phase.count).append(" calls\"");
+            }
+            header.append(", ");
+        });
+        return header.append("total;dur=").append(millis(elapsedNanos())).toString();
+    }
+
+    public static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.be.service;
+
+import com.example.be.config.LlmRoutingProperties;
+import com.example.be.config.LlmRoutingProperties.Route;
+import com.example.be.model.CompareResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmModelRouterTest {
+
+	private final LlmRoutingProperties properties = new LlmRoutingProperties();
+	private final LlmModelRouter router = new LlmModelRouter(properties);
+
+	@Test
+	void firstRouteWhoseLimitsFitWins() {
+		properties.setRoutes(List.of(
+				route("tiny", 20, 2, null),
+				route("small", 200, 8, "large"),
+				route("large", 0, 0, null)));
+
+		assertThat(router.route(compare(10, 5, 1)).getName()).isEqualTo("tiny");
+		assertThat(router.route(compare(100, 50, 3)).getName()).isEqualTo("small");
+		// Within the line limit of tiny, but too many files
+		assertThat(router.route(compare(5, 5, 3)).getName()).isEqualTo("small");
+		assertThat(router.route(compare(150, 100, 3)).getName()).isEqualTo("large");
+	}
+
+	@Test
+	void zeroLimitsAreUnbounded() {
+		properties.setRoutes(List.of(
+				route("files-only", 0, 5, null),
+				route("rest", 0, 0, null)));
+
+		assertThat(router.route(compare(100_000, 100_000, 5)).getName()).isEqualTo("files-only");
+		assertThat(router.route(compare(1, 0, 6)).getName()).isEqualTo("rest");
+	}
+
+	@Test
+	void lastRouteTakesWhatNothingFits() {
+		properties.setRoutes(List.of(
+				route("small", 200, 8, null),
+				route("medium", 1_000, 30, null)));
+
+		assertThat(router.route(compare(5_000, 0, 100)).getName()).isEqualTo("medium");
+	}
+
+	@Test
+	void noRoutesUsesTheDefault() {
+		assertThat(router.route(compare(10, 10, 1)).getName()).isEqualTo("default");
+	}
+
+	@Test
+	void extractedLinesCountWhenTotalsAreMissing() {
+		properties.setRoutes(List.of(
+				route("small", 2, 0, null),
+				route("large", 0, 0, null)));
+		// Extracted lines are separated by an escaped "\\n"
+		CompareResult twoLines = CompareResult.builder()
+				.addedCode("A.java: a\\n")
+				.deletedCode("A.java: b\\n")
+				.build();
+		CompareResult threeLines = CompareResult.builder()
+				.addedCode("A.java: a\\nA.java: c\\n")
+				.deletedCode("A.java: b\\n")
+				.build();
+
+		assertThat(router.route(twoLines).getName()).isEqualTo("small");
+		assertThat(router.route(threeLines).getName()).isEqualTo("large");
+	}
+
+	@Test
+	void fallbackIsTheNamedRoute() {
+		Route small = route("small", 200, 8, "large");
+		Route large = route("large", 0, 0, null);
+		Route self = route("self", 0, 0, "self");
+		Route dangling = route("dangling", 0, 0, "missing");
+		properties.setRoutes(List.of(small, large, self, dangling));
+
+		assertThat(router.fallbackFor(small)).contains(large);
+		assertThat(router.fallbackFor(large)).isEmpty();
+		assertThat(router.fallbackFor(self)).isEmpty();
+		assertThat(router.fallbackFor(dangling)).isEmpty();
+	}
+
+	private static Route route(String name, int maxChangedLines, int maxFiles, String fallback) {
+		Route route = new Route();
+		route.setName(name);
+		route.setModel(name + "-model");
+		route.setMaxChangedLines(maxChangedLines);
+		route.setMaxFiles(maxFiles);
+		route.setFallback(fallback);
+		return route;
+	}
+
+	private static CompareResult compare(int additions, int deletions, int files) {
+		return CompareResult.builder().additions(additions).deletions(deletions).filesChanged(files).build();
+	}
+}
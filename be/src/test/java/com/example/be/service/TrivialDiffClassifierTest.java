@@ -0,0 +1,64 @@
+package com.example.be.service;
+
+import com.example.be.dto.PRSuggestion;
+import com.example.be.dto.SuggestionSource;
+import com.example.be.model.CompareResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrivialDiffClassifierTest {
+
+	private final TrivialDiffClassifier classifier = new TrivialDiffClassifier();
+
+	@Test
+	void reindentedJavaIsFormattingOnly() throws Exception {
+		Optional<PRSuggestion> suggestion = summarize("src/App.java",
+				"@@ -1,3 +1,3 @@\n class App {\n-  int a = 1;\n+    int a = 1;\n }");
+
+		assertThat(suggestion).isPresent();
+		assertThat(suggestion.get().getTitle()).isEqualTo("Reformat App.java");
+		assertThat(suggestion.get().getSource()).isEqualTo(SuggestionSource.HEURISTIC);
+	}
+
+	@Test
+	void indentationChangesInPythonAndYamlGoToTheLlm() throws Exception {
+		String patch = "@@ -1,3 +1,3 @@\n if ready:\n-    start()\n+start()\n";
+
+		assertThat(summarize("app/main.py", patch)).isEmpty();
+		assertThat(summarize(".github/workflows/ci.yml", patch)).isEmpty();
+	}
+
+	@Test
+	void whitespaceInsideStringLiteralsCounts() throws Exception {
+		assertThat(summarize("src/App.java",
+				"@@ -1 +1 @@\n-String s = \"a b\";\n+String s = \"ab\";")).isEmpty();
+	}
+
+	@Test
+	void versionChangeOfTheSameDependencyIsABump() throws Exception {
+		Optional<PRSuggestion> suggestion = summarize("package.json",
+				"@@ -5,3 +5,3 @@\n   \"dependencies\": {\n-    \"lodash\": \"^4.17.20\",\n+    \"lodash\": \"^4.17.21\",\n   }");
+
+		assertThat(suggestion).isPresent();
+		assertThat(suggestion.get().getTitle()).isEqualTo("Bump lodash from ^4.17.20 to ^4.17.21");
+	}
+
+	@Test
+	void swappingOneDependencyForAnotherIsNotABump() throws Exception {
+		assertThat(summarize("package.json",
+				"@@ -5,3 +5,3 @@\n   \"dependencies\": {\n-    \"lodash\": \"^4.17.20\",\n+    \"underscore\": \"^1.13.6\",\n   }"))
+				.isEmpty();
+	}
+
+	private Optional<PRSuggestion> summarize(String filename, String patch) throws Exception {
+		String patches = new ObjectMapper().writeValueAsString(List.of(
+				Map.of("filename", filename, "status", "modified", "patch", patch)));
+		return classifier.summarize(CompareResult.builder().id(1L).patches(patches).build());
+	}
+}
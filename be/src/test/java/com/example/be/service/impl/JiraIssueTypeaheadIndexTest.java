@@ -0,0 +1,173 @@
+package com.example.be.service.impl;
+
+import com.example.be.config.JiraCacheProperties;
+import com.example.be.dto.JiraIssueSummary;
+import com.example.be.model.JiraConnection;
+import com.example.be.model.JiraIssue;
+import com.example.be.repository.JiraIssueRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JiraIssueTypeaheadIndexTest {
+
+	private final List<JiraIssueRepository.TypeaheadView> rows = new ArrayList<>();
+	private final JiraCacheProperties properties = new JiraCacheProperties();
+	private final JiraIssueTypeaheadIndex index = new JiraIssueTypeaheadIndex(repository(), properties);
+	private final JiraConnection connection = JiraConnection.builder().id(UUID.randomUUID()).build();
+
+	@Test
+	void ranksExactKeyThenKeyPrefixThenSummaryMatches() {
+		row("1", "PROJ-1", "Login page");
+		row("10", "PROJ-10", "Cache warm-up");
+		row("12", "PROJ-12", "Retry failed syncs");
+		row("5", "OPS-5", "proj-1 follow up");
+		row("6", "OPS-6", "see proj-1 notes");
+		row("7", "OPS-7", "subproj-1x");
+
+		assertThat(keys("proj-1")).containsExactly("PROJ-1", "PROJ-12", "PROJ-10", "OPS-5", "OPS-6", "OPS-7");
+	}
+
+	@Test
+	void numberAloneMatchesKeysOfEveryProject() {
+		row("1", "PROJ-12", "Login page");
+		row("2", "OPS-12", "Restart workers");
+		row("3", "OPS-7", "Version 12 rollout");
+
+		assertThat(keys("12")).containsExactlyInAnyOrder("PROJ-12", "OPS-12");
+		assertThat(index.projects(connection)).containsExactlyInAnyOrder("PROJ", "OPS");
+	}
+
+	@Test
+	void updatesReplaceIssuesAndRemovalsHideThem() {
+		row("1", "PROJ-1", "Login page");
+		row("2", "PROJ-2", "Signup page");
+		assertThat(keys("login")).containsExactly("PROJ-1");
+
+		index.update(connection.getId(), List.of(issue("1", "PROJ-1", "Logout page")));
+		assertThat(keys("login")).isEmpty();
+		assertThat(index.search(connection, "logout", 10).get(0).getSummary()).isEqualTo("Logout page");
+
+		index.remove(connection.getId(), "1");
+		index.remove(connection.getId(), "PROJ-2");
+		assertThat(keys("proj")).isEmpty();
+		assertThat(keys("page")).isEmpty();
+	}
+
+	@Test
+	void compactionKeepsOnlyTheLatestVersionOfEachIssue() {
+		for (int i = 1; i <= 20; i++) {
+			row(String.valueOf(i), "PROJ-" + i, "Issue " + i);
+		}
+		keys("proj");
+		for (int round = 0; round < 200; round++) {
+			List<JiraIssue> batch = new ArrayList<>();
+			for (int i = 1; i <= 20; i++) {
+				batch.add(issue(String.valueOf(i), "PROJ-" + i, "Issue " + i + " revision " + round));
+			}
+			index.update(connection.getId(), batch);
+		}
+
+		List<JiraIssueSummary> all = index.search(connection, "proj", JiraIssueTypeaheadIndex.MAX_LIMIT);
+		assertThat(all.size()).isEqualTo(20);
+		assertThat(all.stream().map(JiraIssueSummary::getKey).distinct().count()).isEqualTo(20);
+		assertThat(keys("revision 0")).isEmpty();
+		assertThat(index.search(connection, "proj-7", 1).get(0).getSummary()).isEqualTo("Issue 7 revision 199");
+	}
+
+	@Test
+	void rebuildsOnceAnotherNodeHasSynced() {
+		row("1", "PROJ-1", "Login page");
+		assertThat(keys("proj")).containsExactly("PROJ-1");
+
+		// Written to jira_issues by another node
+		row("2", "PROJ-2", "Signup page");
+		assertThat(keys("proj")).containsExactly("PROJ-1");
+
+		connection.setLastIssueSyncAt(new Date());
+		assertThat(keys("proj")).containsExactly("PROJ-2", "PROJ-1");
+	}
+
+	@Test
+	void syncsAppliedOnThisNodeDoNotRebuild() {
+		row("1", "PROJ-1", "Login page");
+		keys("proj");
+		row("2", "PROJ-2", "Signup page");
+
+		Date syncedAt = new Date();
+		index.synced(connection.getId(), syncedAt);
+		connection.setLastIssueSyncAt(syncedAt);
+
+		assertThat(keys("proj")).containsExactly("PROJ-1");
+	}
+
+	@Test
+	void rebuildsAfterTheTtl() throws InterruptedException {
+		properties.setTypeaheadTtl(Duration.ofMillis(1));
+		row("1", "PROJ-1", "Login page");
+		keys("proj");
+		row("2", "PROJ-2", "Signup page");
+
+		Thread.sleep(5);
+
+		assertThat(keys("proj")).containsExactly("PROJ-2", "PROJ-1");
+	}
+
+	private List<String> keys(String query) {
+		return index.search(connection, query, 10).stream().map(JiraIssueSummary::getKey).toList();
+	}
+
+	private void row(String id, String key, String summary) {
+		rows.add(new Row(id, key, summary));
+	}
+
+	private static JiraIssue issue(String id, String key, String summary) {
+		return JiraIssue.builder().issueId(id).issueKey(key).summary(summary).build();
+	}
+
+	// Only the typeahead read is used by the index
+	private JiraIssueRepository repository() {
+		return (JiraIssueRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {JiraIssueRepository.class}, (proxy, method, args) -> {
+					if (method.getName().equals("findTypeaheadByConnectionId")) {
+						return List.copyOf(rows);
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	private record Row(String issueId, String issueKey, String summary) implements JiraIssueRepository.TypeaheadView {
+
+		@Override
+		public String getIssueId() {
+			return issueId;
+		}
+
+		@Override
+		public String getIssueKey() {
+			return issueKey;
+		}
+
+		@Override
+		public String getSummary() {
+			return summary;
+		}
+
+		@Override
+		public String getStatus() {
+			return "To Do";
+		}
+
+		@Override
+		public String getJiraUpdated() {
+			return null;
+		}
+	}
+}
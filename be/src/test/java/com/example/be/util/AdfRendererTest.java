@@ -0,0 +1,78 @@
+package com.example.be.util;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdfRendererTest {
+
+	private static final String DOCUMENT = """
+			{"type":"doc","version":1,"content":[
+			 {"type":"heading","attrs":{"level":2},"content":[{"type":"text","text":"Overview"}]},
+			 {"type":"paragraph","content":[{"type":"text","text":"Add "},
+			   {"type":"text","text":"login","marks":[{"type":"strong"}]},{"type":"text","text":" page"}]},
+			 {"type":"codeBlock","attrs":{"language":"java"},"content":[{"type":"text","text":"int a = 1;"}]},
+			 {"type":"paragraph","content":[{"type":"text","text":"Acceptance Criteria:"}]},
+			 {"type":"bulletList","content":[
+			   {"type":"listItem","content":[{"type":"paragraph","content":[{"type":"text","text":"User can log in"}]}]},
+			   {"type":"listItem","content":[{"type":"paragraph","content":[{"type":"text","text":"Errors are shown"}]}]}]},
+			 {"type":"heading","attrs":{"level":3},"content":[{"type":"text","text":"Notes"}]},
+			 {"type":"paragraph","content":[{"type":"text","text":"Not a criterion"}]}
+			]}""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void rendersPlainTextWithListsAndCode() {
+		AdfRenderer.Rendered rendered = AdfRenderer.render(objectMapper.readTree(DOCUMENT), AdfRenderer.Format.PLAIN);
+
+		assertThat(rendered.getText()).isEqualTo("""
+				Overview
+				Add login page
+				int a = 1;
+				Acceptance Criteria:
+				- User can log in
+				- Errors are shown
+				Notes
+				Not a criterion""");
+	}
+
+	@Test
+	void rendersMarkdown() {
+		String markdown = AdfRenderer.renderText(objectMapper.readTree(DOCUMENT), AdfRenderer.Format.MARKDOWN);
+
+		assertThat(markdown).contains("## Overview", "Add **login** page", "```java\nint a = 1;\n```",
+				"- User can log in\n- Errors are shown");
+	}
+
+	@Test
+	void collectsAcceptanceCriteriaUpToNextHeading() {
+		AdfRenderer.Rendered rendered = AdfRenderer.render(objectMapper.readTree(DOCUMENT), AdfRenderer.Format.PLAIN);
+
+		assertThat(rendered.getAcceptanceCriteria()).containsExactly("User can log in", "Errors are shown");
+	}
+
+	@Test
+	void handlesDeeplyNestedDocuments() {
+		StringBuilder json = new StringBuilder();
+		// Close to Jackson's default nesting limit of 500 (object + array per level)
+		int depth = 240;
+		for (int i = 0; i < depth; i++) {
+			json.append("{\"type\":\"blockquote\",\"content\":[");
+		}
+		json.append("{\"type\":\"text\",\"text\":\"deep\"}");
+		json.append("]}".repeat(depth));
+		JsonNode node = objectMapper.readTree(json.toString());
+
+		assertThat(AdfRenderer.renderText(node, AdfRenderer.Format.PLAIN)).isEqualTo("deep");
+	}
+
+	@Test
+	void acceptsMissingAndPlainStringDescriptions() {
+		assertThat(AdfRenderer.renderText(null, AdfRenderer.Format.PLAIN)).isEmpty();
+		assertThat(AdfRenderer.renderText(objectMapper.readTree("\" legacy text \""), AdfRenderer.Format.PLAIN))
+				.isEqualTo("legacy text");
+	}
+}
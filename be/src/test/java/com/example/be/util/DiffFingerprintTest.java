@@ -0,0 +1,67 @@
+package com.example.be.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiffFingerprintTest {
+
+	@Test
+	void nearDuplicateDiffsStayWithinBandDistance() {
+		DiffFingerprint original = new DiffFingerprint();
+		DiffFingerprint followUp = new DiffFingerprint();
+		for (int i = 0; i < 200; i++) {
+			original.addLine("src/App.java", '+', "int value" + i + " = compute(" + i + ");");
+			followUp.addLine("src/App.java", '+', "int value" + i + " =   compute(" + i + ");");
+		}
+		followUp.addLine("src/App.java", '+', "log.info(\"done\");");
+
+		int distance = DiffFingerprint.distance(original.build(), followUp.build());
+
+		assertThat(distance).isLessThan(DiffFingerprint.BANDS);
+	}
+
+	@Test
+	void rewritingALineOfAFollowUpPushStaysWithinBandDistance() {
+		DiffFingerprint original = new DiffFingerprint();
+		DiffFingerprint followUp = new DiffFingerprint();
+		for (int i = 0; i < 50; i++) {
+			String line = "return repository.findById(" + i + ").orElseThrow();";
+			original.addLine("src/Service.java", '+', line);
+			followUp.addLine("src/Service.java", '+', i == 7 ? line.replace("orElseThrow()", "orElse(null)") : line);
+		}
+
+		assertThat(DiffFingerprint.distance(original.build(), followUp.build())).isLessThan(DiffFingerprint.BANDS);
+	}
+
+	@Test
+	void fingerprintsWithinBandDistanceShareABand() {
+		long fingerprint = 0x9e3779b97f4a7c15L;
+		// Seven flipped bits, one in each of the first seven bands
+		long near = fingerprint ^ 0x0001020408102040L;
+
+		assertThat(DiffFingerprint.distance(fingerprint, near)).isEqualTo(DiffFingerprint.BANDS - 1);
+		assertThat(DiffFingerprint.band(near, DiffFingerprint.BANDS - 1))
+				.isEqualTo(DiffFingerprint.band(fingerprint, DiffFingerprint.BANDS - 1));
+	}
+
+	@Test
+	void unrelatedDiffsAreFarApart() {
+		DiffFingerprint first = new DiffFingerprint();
+		DiffFingerprint second = new DiffFingerprint();
+		for (int i = 0; i < 200; i++) {
+			first.addLine("pom.xml", '+', "<version>" + i + "</version>");
+			second.addLine("README.md", '-', "Section " + i + " of the guide");
+		}
+
+		assertThat(DiffFingerprint.distance(first.build(), second.build())).isGreaterThan(10);
+	}
+
+	@Test
+	void whitespaceOnlyLinesAreIgnored() {
+		DiffFingerprint fingerprint = new DiffFingerprint();
+		fingerprint.addLine("a.txt", '+', "   \t ");
+
+		assertThat(fingerprint.isEmpty()).isTrue();
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.be.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiffIgnoreRulesTest {
+
+	private final DiffIgnoreRules rules = new DiffIgnoreRules(
+			List.of("**/package-lock.json", "**/vendor/**"), 1_000, true);
+
+	@Test
+	void globsMatchAtAnyDepth() {
+		assertThat(rules.match("package-lock.json", "@@ -1 +1 @@\n-a\n+b")).isEqualTo(DiffIgnoreRules.PATTERN);
+		assertThat(rules.match("fe/package-lock.json", "@@ -1 +1 @@\n-a\n+b")).isEqualTo(DiffIgnoreRules.PATTERN);
+		assertThat(rules.match("third_party/vendor/lib/a.go", null)).isEqualTo(DiffIgnoreRules.PATTERN);
+		assertThat(rules.match("src/App.java", "@@ -1 +1 @@\n-a\n+b")).isNull();
+	}
+
+	@Test
+	void oversizedPatchesAreDropped() {
+		String patch = "@@ -1,400 +1,400 @@\n" + "+line\n".repeat(400);
+
+		assertThat(rules.match("src/App.java", patch)).isEqualTo(DiffIgnoreRules.SIZE);
+	}
+
+	@Test
+	void generatedHeaderOnlyCountsAtTheTopOfTheFile() {
+		String newFile = "@@ -0,0 +1,3 @@\n+// Code generated by protoc-gen-go. DO NOT EDIT.\n+package api\n+";
+		String laterHunk = "@@ -40,3 +40,4 @@\n // Code generated by protoc-gen-go. DO NOT EDIT.\n+func a() {}";
+
+		assertThat(rules.match("api/service.go", newFile)).isEqualTo(DiffIgnoreRules.GENERATED);
+		assertThat(rules.match("api/service.go", laterHunk)).isNull();
+	}
+
+	@Test
+	void longLinesMarkOnlyJavaScriptAndCssAsMinified() {
+		String patch = "@@ -1 +1 @@\n-old\n+" + "var a=1;".repeat(30);
+
+		assertThat(rules.match("static/app.js", patch)).isEqualTo(DiffIgnoreRules.MINIFIED);
+		assertThat(rules.match("docs/guide.md", patch)).isNull();
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.be.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JiraKeysTest {
+
+	private static final Set<String> PROJECTS = Set.of("PROJ", "OPS");
+
+	@Test
+	void findsKeysInBranchNamesIgnoringCase() {
+		assertThat(JiraKeys.fromBranch("feature/proj-1234-fix-login", PROJECTS)).containsExactly("PROJ-1234");
+		assertThat(JiraKeys.fromBranch("PROJ-1_PROJ-2", PROJECTS)).containsExactly("PROJ-1", "PROJ-2");
+		assertThat(JiraKeys.fromBranch("main", PROJECTS)).isEmpty();
+	}
+
+	@Test
+	void ignoresBranchKeysOfUnknownProjects() {
+		for (String branch : List.of("fix-123", "release-2", "hotfix-1", "issue-42", "lodash-4", "FIX-123")) {
+			assertThat(JiraKeys.fromBranch(branch, PROJECTS)).isEmpty();
+		}
+		assertThat(JiraKeys.fromBranch("hotfix-1/ops-77-restart", PROJECTS)).containsExactly("OPS-77");
+		assertThat(JiraKeys.fromBranch("proj-12", Set.of())).isEmpty();
+	}
+
+	@Test
+	void findsOnlyUpperCaseKeysInCommitMessages() {
+		assertThat(JiraKeys.fromMessages(List.of(
+				"PROJ-12: fix login\n\nRelated to OPS-7 and see proj-99",
+				"Merge branch 'PROJ-12'")))
+				.containsExactly("PROJ-12", "OPS-7");
+	}
+
+	@Test
+	void ignoresEncodingsAndStandards() {
+		assertThat(JiraKeys.fromMessages(List.of("Read files as UTF-8, hash with SHA-256, fixes CVE-2024"))).isEmpty();
+		assertThat(JiraKeys.fromBranch("utf-8-cleanup", Set.of("UTF"))).isEmpty();
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.be.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTimingTest {
+
+	@AfterEach
+	void unbind() {
+		RequestTiming.end();
+	}
+
+	@Test
+	void recordsNothingOutsideARequest() {
+		RequestTiming.record("github", 5_000_000);
+		RequestTiming.start("diff").close();
+
+		assertThat(RequestTiming.current()).isNull();
+	}
+
+	@Test
+	void sumsPhasesInFirstSeenOrder() {
+		RequestTiming timing = RequestTiming.begin();
+		RequestTiming.record("github", 12_340_000);
+		RequestTiming.record("db", 1_000_000);
+		RequestTiming.record("db", 2_500_000);
+
+		assertThat(timing.phases()).containsOnlyKeys("github", "db");
+		assertThat(timing.phases().get("db").getCount()).isEqualTo(2);
+		assertThat(timing.toHeader())
+				.startsWith("github;dur=12.3, db;dur=3.5;desc=\"2 calls\", total;dur=");
+	}
+
+	@Test
+	void propagatesToOtherThreads() throws InterruptedException {
+		RequestTiming timing = RequestTiming.begin();
+		Thread worker = new Thread(RequestTiming.propagate(() -> RequestTiming.record("jira", 7_000_000)));
+		worker.start();
+		worker.join();
+
+		assertThat(timing.phases().get("jira").getNanos()).isEqualTo(7_000_000);
+	}
+}
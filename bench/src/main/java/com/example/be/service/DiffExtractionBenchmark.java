@@ -0,0 +1,74 @@
+package com.example.be.service;
+
+import com.example.bench.CompareCorpus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU side of a compare request: decoding GitHub's JSON and
+ * {@link GitHubService#extractPatches} (patches JSON, changed-line listings and
+ * the diff fingerprint). Lives in the service package for package-private access.
+ *
+ * <pre>java -jar bench/target/benchmarks.jar DiffExtractionBenchmark</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiffExtractionBenchmark {
+
+    @Param({"small", "large"})
+    private String corpus;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GitHubService gitHubService = new GitHubService();
+
+    private byte[] body;
+    private List<Map<String, Object>> files;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        body = CompareCorpus.load(corpus);
+        files = (List<Map<String, Object>>) objectMapper.readValue(body, Map.class).get("files");
+    }
+
+    @Benchmark
+    public Map<?, ?> decodeJson() throws IOException {
+        return objectMapper.readValue(body, Map.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> extractPatches() {
+        Map<String, Object> result = new HashMap<>();
+        gitHubService.extractPatches(files, result);
+        return result;
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> decodeAndExtract() throws IOException {
+        Map<String, Object> response = objectMapper.readValue(body, Map.class);
+        Map<String, Object> result = new HashMap<>();
+        gitHubService.extractPatches((List<Map<String, Object>>) response.get("files"), result);
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.be.service;
+
+import com.example.be.dto.PRSuggestion;
+import com.example.be.model.CompareResult;
+import com.example.bench.CompareCorpus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt assembly, JSON escaping of the request body and parsing of a typical
+ * Groq answer in {@link LLMService}, for compares built from the diff corpora.
+ *
+ * <pre>java -jar bench/target/benchmarks.jar PromptBenchmark</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PromptBenchmark {
+
+    private static final String RESPONSE = """
+            TITLE: Add idempotency keys to order placement
+            DESCRIPTION:
+            Made order placement safe to retry by deduplicating requests on an idempotency key.
+
+            Changes:
+            - Added idempotency key and placed-at columns to orders
+            - Returned the existing order when a key is reused
+            - Sent a per-form idempotency key from the order form
+            - Documented retry behaviour for order clients
+            """;
+
+    @Param({"small", "large"})
+    private String corpus;
+
+    private final LLMService llmService = new LLMService(null, null, null);
+
+    private CompareResult compareResult;
+    private String prompt;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        Map<String, Object> response = new ObjectMapper().readValue(CompareCorpus.load(corpus), Map.class);
+        List<Map<String, Object>> files = (List<Map<String, Object>>) response.get("files");
+        Map<String, Object> result = new HashMap<>();
+        new GitHubService().extractPatches(files, result);
+
+        compareResult = CompareResult.builder()
+                .owner("acme")
+                .repo("shop")
+                .baseBranch("main")
+                .headBranch("feature/SHOP-412-idempotent-orders")
+                .filesChanged(files.size())
+                .patches((String) result.get("patches"))
+                .addedCode((String) result.get("addedCode"))
+                .deletedCode((String) result.get("deletedCode"))
+                .build();
+        prompt = llmService.buildPrompt(compareResult);
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return llmService.buildPrompt(compareResult);
+    }
+
+    @Benchmark
+    public String escapeJson() {
+        return llmService.escapeJson(prompt);
+    }
+
+    @Benchmark
+    public PRSuggestion parseResponse() {
+        return llmService.parseResponse(RESPONSE);
+    }
+}
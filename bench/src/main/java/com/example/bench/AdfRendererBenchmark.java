@@ -0,0 +1,132 @@
+package com.example.bench;
+
+import com.example.be.util.AdfRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders Jira descriptions repeated {@code sections} times, comparing the old
+ * recursive parser with both AdfRenderer formats. {@code story} is a real-world
+ * story layout (headings, nested lists, tables, code, panels); {@code nested} is
+ * a checklist nested {@value #NESTING} levels deep, with a quote and a table
+ * inside every level.
+ *
+ * <pre>java -jar bench/target/benchmarks.jar AdfRendererBenchmark -prof gc</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdfRendererBenchmark {
+
+    static final int NESTING = 40;
+
+    @Param({"story", "nested"})
+    private String shape;
+
+    @Param({"1", "25", "250"})
+    private int sections;
+
+    private JsonNode document;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode story;
+        try (InputStream in = AdfRendererBenchmark.class.getResourceAsStream("/adf/story.json")) {
+            story = objectMapper.readTree(in);
+        }
+
+        ArrayNode section = "nested".equals(shape)
+                ? objectMapper.createArrayNode().add(nestedList(objectMapper, NESTING))
+                : (ArrayNode) story.get("content");
+
+        ObjectNode doc = objectMapper.createObjectNode();
+        doc.put("type", "doc");
+        doc.put("version", 1);
+        ArrayNode content = doc.putArray("content");
+        for (int i = 0; i < sections; i++) {
+            content.addAll(section);
+        }
+        document = doc;
+    }
+
+    private static ObjectNode nestedList(ObjectMapper objectMapper, int depth) {
+        ObjectNode list = node(objectMapper, "bulletList");
+        ObjectNode item = node(objectMapper, "listItem");
+        list.putArray("content").add(item);
+        ArrayNode itemContent = item.putArray("content");
+        itemContent.add(paragraph(objectMapper, "Level " + depth + ": verify the retry path keeps the idempotency key"));
+
+        ObjectNode quote = node(objectMapper, "blockquote");
+        quote.putArray("content").add(paragraph(objectMapper, "Reviewer note for level " + depth));
+        itemContent.add(quote);
+
+        ObjectNode table = node(objectMapper, "table");
+        ObjectNode row = node(objectMapper, "tableRow");
+        table.putArray("content").add(row);
+        ArrayNode cells = row.putArray("content");
+        for (String text : new String[] {"Case " + depth, "Expected", "Owner"}) {
+            ObjectNode cell = node(objectMapper, "tableCell");
+            cell.putArray("content").add(paragraph(objectMapper, text));
+            cells.add(cell);
+        }
+        itemContent.add(table);
+
+        if (depth > 1) {
+            itemContent.add(nestedList(objectMapper, depth - 1));
+        }
+        return list;
+    }
+
+    private static ObjectNode paragraph(ObjectMapper objectMapper, String text) {
+        ObjectNode paragraph = node(objectMapper, "paragraph");
+        ObjectNode textNode = node(objectMapper, "text");
+        textNode.put("text", text);
+        paragraph.putArray("content").add(textNode);
+        return paragraph;
+    }
+
+    private static ObjectNode node(ObjectMapper objectMapper, String type) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("type", type);
+        return node;
+    }
+
+    @Benchmark
+    public void legacyRecursive(Blackhole blackhole) {
+        String text = LegacyAdfParser.parseADF(document);
+        blackhole.consume(text);
+        blackhole.consume(LegacyAdfParser.acceptanceCriteria(text));
+    }
+
+    @Benchmark
+    public AdfRenderer.Rendered plain() {
+        return AdfRenderer.render(document, AdfRenderer.Format.PLAIN);
+    }
+
+    @Benchmark
+    public AdfRenderer.Rendered markdown() {
+        return AdfRenderer.render(document, AdfRenderer.Format.MARKDOWN);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * GitHub compare responses for the diff and prompt benchmarks.
+ * <ul>
+ * <li>{@code small}: {@code compare/small.json}, a four-file feature branch
+ * (Java service, React component, SQL migration, renamed doc).</li>
+ * <li>{@code large}: the same files spread over 300 modules (GitHub's file cap)
+ * with each patch repeated as four hunks, about 1.5 MB of JSON. Identifiers are
+ * numbered per module so no two changed lines are identical.</li>
+ * </ul>
+ */
+public final class CompareCorpus {
+
+    private static final int LARGE_FILES = 300;
+    private static final int LARGE_HUNKS = 4;
+
+    private CompareCorpus() {
+    }
+
+    public static byte[] load(String name) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        byte[] small;
+        try (InputStream in = CompareCorpus.class.getResourceAsStream("/compare/small.json")) {
+            small = in.readAllBytes();
+        }
+        if ("small".equals(name)) {
+            return small;
+        }
+        if (!"large".equals(name)) {
+            throw new IllegalArgumentException("Unknown compare corpus: " + name);
+        }
+
+        ObjectNode compare = (ObjectNode) objectMapper.readTree(small);
+        ArrayNode templates = (ArrayNode) compare.get("files");
+        ArrayNode files = objectMapper.createArrayNode();
+        for (int i = 0; files.size() < LARGE_FILES; i++) {
+            for (JsonNode template : templates) {
+                if (files.size() == LARGE_FILES) {
+                    break;
+                }
+                ObjectNode file = template.deepCopy();
+                file.put("filename", "module" + i + "/" + template.get("filename").asText());
+                StringBuilder patch = new StringBuilder();
+                for (int hunk = 0; hunk < LARGE_HUNKS; hunk++) {
+                    patch.append(template.get("patch").asText()
+                            .replace("Order", "Order" + i + "x" + hunk)
+                            .replace("order", "order" + i + "x" + hunk)).append('\n');
+                }
+                file.put("patch", patch.toString());
+                files.add(file);
+            }
+        }
+        compare.set("files", files);
+        return objectMapper.writeValueAsBytes(compare);
+    }
+}
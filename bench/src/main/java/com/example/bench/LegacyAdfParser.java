@@ -0,0 +1,57 @@
+package com.example.bench;
+
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The recursive parser AdfRenderer replaced, kept as the benchmark baseline.
+ */
+final class LegacyAdfParser {
+
+    private LegacyAdfParser() {
+    }
+
+    static String parseADF(JsonNode node) {
+        if (node == null)
+            return "";
+
+        StringBuilder result = new StringBuilder();
+
+        if (node.has("text")) {
+            result.append(node.get("text").asText());
+        }
+
+        if (node.has("content") && node.get("content").isArray()) {
+            for (JsonNode child : node.get("content")) {
+                result.append(parseADF(child));
+
+                if (child.has("type")) {
+                    String type = child.get("type").asText();
+                    if (type.equals("paragraph") || type.equals("hardBreak") || type.equals("listItem")) {
+                        result.append("\n");
+                    }
+                }
+            }
+        }
+
+        return result.toString().trim();
+    }
+
+    static List<String> acceptanceCriteria(String descriptionText) {
+        List<String> acceptanceCriteria = new ArrayList<>();
+        String[] lines = descriptionText.split("\n");
+        boolean isAC = false;
+        for (String line : lines) {
+            if (line.trim().equalsIgnoreCase("Acceptance Criteria:")) {
+                isAC = true;
+                continue;
+            }
+            if (isAC && !line.trim().isEmpty()) {
+                acceptanceCriteria.add(line.trim());
+            }
+        }
+        return acceptanceCriteria;
+    }
+}
@@ -69,6 +69,23 @@ const CompareForm: React.FC = () => {
         }));
     };
 
+    // Resolves with the suggestion once the job finishes, or null if it failed
+    const followSuggestionJob = (jobId: number) =>
+        new Promise<{ title: string, description: string } | null>((resolve) => {
+            const events = new EventSource(`http://localhost:8080/api/suggestion-jobs/${jobId}/events`, {
+                withCredentials: true,
+            });
+            events.addEventListener('job', (event) => {
+                const job = JSON.parse((event as MessageEvent).data);
+                events.close();
+                resolve(job.status === 'SUCCEEDED' ? { title: job.title, description: job.description } : null);
+            });
+            events.onerror = () => {
+                events.close();
+                resolve(null);
+            };
+        });
+
     const handleSubmit = async (e: React.FormEvent) => {
         e.preventDefault();
         setLoading(true);
@@ -78,7 +95,7 @@ const CompareForm: React.FC = () => {
 
         try {
             // Step 1: Compare branches
-            const compareResponse = await fetch('http://localhost:8080/api/compare', {
+            const compareResponse = await fetch('http://localhost:8080/api/compare?mode=summary', {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json',
@@ -103,7 +120,10 @@ const CompareForm: React.FC = () => {
 
                 const prData = await prResponse.json();
 
-                if (prResponse.ok && prData.success) {
+                if (prResponse.status === 202 && prData.jobId) {
+                    // An earlier job for this compare is still running
+                    setPrSuggestion(await followSuggestionJob(prData.jobId));
+                } else if (prResponse.ok && prData.success) {
                     setPrSuggestion(prData.data);
                 }
             } else {
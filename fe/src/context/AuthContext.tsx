@@ -9,9 +9,17 @@ interface User {
     jira_connected?: boolean;
 }
 
+// Background work started by the last login (Jira sites, issue cache warm-up)
+interface LoginSyncStatus {
+    state: 'RUNNING' | 'READY' | 'WARM' | 'FAILED';
+    sites?: number;
+    message?: string;
+}
+
 interface AuthContextType {
     user: User | null;
     loading: boolean;
+    loginSync: LoginSyncStatus | null;
     login: () => void;
     logout: () => Promise<void>;
     disconnectJira: () => Promise<void>;
@@ -22,6 +30,7 @@ const AuthContext = createContext<AuthContextType | undefined>(undefined);
 export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) => {
     const [user, setUser] = useState<User | null>(null);
     const [loading, setLoading] = useState(true);
+    const [loginSync, setLoginSync] = useState<LoginSyncStatus | null>(null);
 
     const fetchUser = async () => {
         try {
@@ -45,6 +54,25 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
         fetchUser();
     }, []);
 
+    useEffect(() => {
+        if (!user) {
+            return;
+        }
+        const events = new EventSource('http://localhost:8080/api/user/login-sync/events', {
+            withCredentials: true,
+        });
+        events.addEventListener('login-sync', (event) => {
+            const status: LoginSyncStatus = JSON.parse((event as MessageEvent).data);
+            setLoginSync(status);
+            if (status.state === 'WARM' || status.state === 'FAILED') {
+                events.close();
+            }
+        });
+        // No sync running, or the server closed the stream
+        events.onerror = () => events.close();
+        return () => events.close();
+    }, [user?.id]);
+
     const login = () => {
         window.location.href = 'http://localhost:8080/oauth2/authorization/github';
     };
@@ -83,7 +111,7 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
     };
 
     return (
-        <AuthContext.Provider value={{ user, loading, login, logout, disconnectJira }}>
+        <AuthContext.Provider value={{ user, loading, loginSync, login, logout, disconnectJira }}>
             {children}
         </AuthContext.Provider>
     );
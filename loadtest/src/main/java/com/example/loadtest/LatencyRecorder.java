@@ -0,0 +1,64 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes of one scenario. Latency runs from the time a request
+ * was scheduled, not sent, so a backed-up driver still shows up as slowness
+ * instead of a quietly lower rate.
+ */
+final class LatencyRecorder {
+
+    private final String scenario;
+    private long[] latenciesMicros = new long[1024];
+    private int count;
+    private long failures;
+    // Non-2xx responses by status code
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    LatencyRecorder(String scenario) {
+        this.scenario = scenario;
+    }
+
+    String scenario() {
+        return scenario;
+    }
+
+    synchronized void record(long latencyNanos, int status) {
+        if (count == latenciesMicros.length) {
+            latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+        }
+        latenciesMicros[count++] = latencyNanos / 1_000;
+        if (status < 200 || status >= 300) {
+            statuses.merge(status, 1L, Long::sum);
+        }
+    }
+
+    // No response at all: connection errors and client timeouts
+    synchronized void recordFailure() {
+        failures++;
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latenciesMicros, count);
+        Arrays.sort(sorted);
+        long errors = statuses.values().stream().mapToLong(Long::longValue).sum();
+        return new Summary(scenario, count + failures, (count - errors) / seconds, errors, failures,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1], Map.copyOf(statuses));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    record Summary(String scenario, long requests, double throughput, long errors, long failures,
+            long p50Micros, long p90Micros, long p99Micros, long maxMicros, Map<Integer, Long> statuses) {
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop driver: requests are started at a fixed rate whatever the backend's
+ * response times, spread over {@code users} load-test users and picked from the
+ * scenario mix by weight. Each user gets a manual Jira connection to the stub
+ * site during {@link #setUp()}.
+ */
+final class LoadDriver {
+
+    static final String COMPARE = "compare";
+    static final String SUGGESTION = "suggestion";
+    static final String JIRA_ISSUE = "jira-issue";
+    static final String JIRA_BATCH = "jira-batch";
+    static final String JIRA_TYPEAHEAD = "jira-typeahead";
+
+    static final String DEFAULT_MIX = "compare:4,suggestion:2,jira-issue:2,jira-batch:1,jira-typeahead:1";
+
+    private static final String USER_HEADER = "X-Load-Test-User";
+    private static final long FIRST_USER_ID = 900_000_001L;
+    private static final String CONNECTION_NAME = "loadtest";
+    private static final int BATCH_SIZE = 10;
+    private static final String[] TYPEAHEAD_QUERIES = {"idem", "order", "SHOP-1", "placement", "42"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI backend;
+    private final String jiraUrl;
+    private final int users;
+    private final int jiraIssues;
+    private final Duration timeout;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final HttpClient client;
+
+    private final List<String> connections = new ArrayList<>();
+    // Ring of recent compare ids for the suggestion scenario
+    private final AtomicLongArray compareIds = new AtomicLongArray(256);
+    private final AtomicLong compares = new AtomicLong();
+
+    LoadDriver(URI backend, String jiraUrl, int users, int jiraIssues, Duration timeout, int maxInFlight) {
+        this.backend = backend;
+        this.jiraUrl = jiraUrl;
+        this.users = users;
+        this.jiraIssues = jiraIssues;
+        this.timeout = timeout;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Signs every user in once and makes sure they have a Jira connection to the
+     * stub site. Re-runs against the same database reuse the existing ones.
+     */
+    void setUp() throws IOException, InterruptedException {
+        for (int i = 0; i < users; i++) {
+            long userId = FIRST_USER_ID + i;
+            Map<String, Object> connection = new LinkedHashMap<>();
+            connection.put("userId", String.valueOf(userId));
+            connection.put("name", CONNECTION_NAME);
+            connection.put("username", "loadtest@example.com");
+            connection.put("domainUrl", jiraUrl);
+            connection.put("token", "loadtest");
+            connection.put("projectName", "Load Test");
+            connection.put("projectKey", StubServer.PROJECT);
+            client.send(request(userId, "/jiraConnection/save")
+                    .POST(json(connection))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+
+            HttpResponse<String> response = client.send(
+                    request(userId, "/jiraConnection/getAllConnections/" + userId).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode id = response.statusCode() == 200
+                    ? objectMapper.readTree(response.body()).get(CONNECTION_NAME)
+                    : null;
+            if (id == null) {
+                throw new IllegalStateException("No Jira connection for load-test user " + userId
+                        + " (HTTP " + response.statusCode() + "); is the backend running with the loadtest profile?");
+            }
+            connections.add(id.asText());
+        }
+    }
+
+    /**
+     * Drives the mix at {@code rate} requests per second. Requests started during
+     * the warm-up are not recorded.
+     */
+    Map<String, LatencyRecorder> run(double rate, Duration warmup, Duration duration, Map<String, Integer> mix)
+            throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        mix.keySet().forEach(scenario -> recorders.put(scenario, new LatencyRecorder(scenario)));
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        long intervalNanos = Math.round(1_000_000_000 / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            String scenario = pick(mix, totalWeight);
+            if (SUGGESTION.equals(scenario) && compares.get() == 0) {
+                // Nothing to suggest for yet
+                scenario = COMPARE;
+            }
+            LatencyRecorder recorder = scheduled >= measureFrom ? recorders.get(scenario) : null;
+            if (!inFlight.tryAcquire()) {
+                // Backend is too far behind; counting it is more honest than blocking the schedule
+                if (recorder != null) {
+                    recorder.recordFailure();
+                }
+                continue;
+            }
+            send(scenario, (int) (i % users), scheduled, recorder);
+        }
+
+        // Let requests still in flight finish before summarizing
+        if (!inFlight.tryAcquire(maxInFlight, timeout.toMillis() + 1_000, TimeUnit.MILLISECONDS)) {
+            System.err.println("Some requests were still running when the run ended");
+        }
+        return recorders;
+    }
+
+    private void send(String scenario, int user, long scheduled, LatencyRecorder recorder) {
+        long userId = FIRST_USER_ID + user;
+        String connection = connections.get(user);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        HttpRequest request = switch (scenario) {
+            case COMPARE -> request(userId, "/api/compare?mode=summary")
+                    .POST(json(Map.of(
+                            "owner", "acme",
+                            "repo", "shop",
+                            "baseBranch", "main",
+                            "headBranch", "feature/" + issueKey(random) + "-idempotent-orders")))
+                    .build();
+            case SUGGESTION -> request(userId, "/api/compare/" + recentCompare(random) + "/generate-pr-suggestion")
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case JIRA_ISSUE -> request(userId, "/jiraConnection/getTicket/" + issueKey(random)
+                    + "?connectionId=" + connection)
+                    .GET()
+                    .build();
+            case JIRA_BATCH -> {
+                List<String> keys = new ArrayList<>();
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    keys.add(issueKey(random));
+                }
+                yield request(userId, "/jiraConnection/getTickets/" + connection).POST(json(keys)).build();
+            }
+            case JIRA_TYPEAHEAD -> request(userId, "/jiraConnection/typeahead/" + connection + "?q="
+                    + TYPEAHEAD_QUERIES[random.nextInt(TYPEAHEAD_QUERIES.length)])
+                    .GET()
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+
+        boolean isCompare = COMPARE.equals(scenario);
+        CompletableFuture<HttpResponse<byte[]>> response =
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        response.whenComplete((result, error) -> {
+            long latency = System.nanoTime() - scheduled;
+            inFlight.release();
+            if (error != null) {
+                if (recorder != null) {
+                    recorder.recordFailure();
+                }
+                return;
+            }
+            if (recorder != null) {
+                recorder.record(latency, result.statusCode());
+            }
+            if (isCompare && result.statusCode() == 200) {
+                rememberCompare(result.body());
+            }
+        });
+    }
+
+    private void rememberCompare(byte[] body) {
+        long id;
+        try {
+            id = objectMapper.readTree(body).path("data").path("id").asLong();
+        } catch (IOException e) {
+            // A malformed body already shows up in the compare latencies
+            return;
+        }
+        if (id > 0) {
+            // Slot written before the count moves, so readers only see filled slots
+            synchronized (compareIds) {
+                compareIds.set((int) (compares.get() % compareIds.length()), id);
+                compares.incrementAndGet();
+            }
+        }
+    }
+
+    private long recentCompare(ThreadLocalRandom random) {
+        int filled = (int) Math.min(compares.get(), compareIds.length());
+        return compareIds.get(random.nextInt(filled));
+    }
+
+    private String issueKey(ThreadLocalRandom random) {
+        return StubServer.PROJECT + "-" + (1 + random.nextInt(jiraIssues));
+    }
+
+    private static String pick(Map<String, Integer> mix, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty scenario mix");
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String scenario = parts[0].trim();
+            if (!List.of(COMPARE, SUGGESTION, JIRA_ISSUE, JIRA_BATCH, JIRA_TYPEAHEAD).contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario " + scenario);
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(scenario, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Scenario mix is empty");
+        }
+        if (weights.containsKey(SUGGESTION) && !weights.containsKey(COMPARE)) {
+            throw new IllegalArgumentException("The suggestion scenario needs compare in the mix");
+        }
+        return weights;
+    }
+
+    private HttpRequest.Builder request(long userId, String path) {
+        return HttpRequest.newBuilder(backend.resolve(path))
+                .timeout(timeout)
+                .header(USER_HEADER, String.valueOf(userId))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
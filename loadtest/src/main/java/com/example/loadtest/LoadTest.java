@@ -0,0 +1,172 @@
+package com.example.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the backend against local upstream stubs and drives it at a fixed rate.
+ * See {@code loadtest/README.md} for the options.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        URI backend = URI.create(options.string("backend-url", "http://localhost:8080"));
+        // Actuator listens on its own port
+        URI management = URI.create(options.string("management-url", "http://localhost:8081"));
+
+        List<StubServer.Upstream> upstreams = List.of(
+                StubServer.Upstream.from(options, "github", Duration.ofMillis(250)),
+                StubServer.Upstream.from(options, "groq", Duration.ofMillis(1200)),
+                StubServer.Upstream.from(options, "jira", Duration.ofMillis(120)));
+        int jiraIssues = options.integer("jira-issues", 500);
+
+        try (StubServer stubs = new StubServer(options.integer("stub-port", 8089), upstreams, jiraIssues)) {
+            stubs.start();
+            String stubUrl = "http://localhost:" + stubs.port();
+            System.out.println("Stubs listening on " + stubUrl);
+            if (options.flag("stubs-only")) {
+                System.out.println("Start the backend with --spring.profiles.active=loadtest --loadtest.stubs=" + stubUrl);
+                Thread.currentThread().join();
+            }
+
+            Process process = null;
+            String jar = options.string("backend-jar", null);
+            if (jar != null) {
+                process = startBackend(jar, backend, management, stubUrl, options);
+            }
+            try {
+                awaitHealthy(management, process, options.duration("startup-timeout", Duration.ofMinutes(2)));
+                run(options, backend, management, stubUrl + "/jira", jiraIssues, stubs, process);
+            } finally {
+                if (process != null) {
+                    process.destroy();
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void run(Options options, URI backend, URI management, String jiraUrl, int jiraIssues,
+            StubServer stubs, Process process) throws IOException, InterruptedException {
+        double rate = options.decimal("rate", 20);
+        Duration warmup = options.duration("warmup", Duration.ofSeconds(15));
+        Duration duration = options.duration("duration", Duration.ofSeconds(60));
+        Map<String, Integer> mix = LoadDriver.parseMix(options.string("mix", LoadDriver.DEFAULT_MIX));
+
+        LoadDriver driver = new LoadDriver(backend, jiraUrl, options.integer("users", 20), jiraIssues,
+                options.duration("timeout", Duration.ofSeconds(30)), options.integer("max-in-flight", 512));
+        driver.setUp();
+
+        System.out.printf(Locale.ROOT, "Driving %s at %.1f req/s: %d s warm-up, %d s measured, mix %s%n",
+                backend, rate, warmup.toSeconds(), duration.toSeconds(), mix);
+        Duration cpuStart = process != null ? cpuTime(process) : null;
+        Map<String, LatencyRecorder> recorders;
+        try (ResourceSampler sampler = new ResourceSampler(management)) {
+            sampler.start(warmup);
+            recorders = driver.run(rate, warmup, duration, mix);
+            report(recorders, duration, sampler, stubs);
+        }
+        if (cpuStart != null) {
+            double cores = (cpuTime(process).toMillis() - cpuStart.toMillis()) / (double) (warmup.toMillis() + duration.toMillis());
+            System.out.printf(Locale.ROOT, "Backend process CPU: %.2f cores on average, warm-up included%n", cores);
+        }
+    }
+
+    private static void report(Map<String, LatencyRecorder> recorders, Duration duration, ResourceSampler sampler,
+            StubServer stubs) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-16s %9s %9s %7s %8s %9s %9s %9s %9s  %s%n",
+                "scenario", "requests", "ok/s", "errors", "failures", "p50 ms", "p90 ms", "p99 ms", "max ms", "statuses");
+        long total = 0;
+        double totalThroughput = 0;
+        for (LatencyRecorder recorder : recorders.values()) {
+            LatencyRecorder.Summary summary = recorder.summarize(seconds);
+            total += summary.requests();
+            totalThroughput += summary.throughput();
+            System.out.printf(Locale.ROOT, "%-16s %9d %9.1f %7d %8d %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    summary.scenario(), summary.requests(), summary.throughput(), summary.errors(), summary.failures(),
+                    summary.p50Micros() / 1000.0, summary.p90Micros() / 1000.0, summary.p99Micros() / 1000.0,
+                    summary.maxMicros() / 1000.0, summary.statuses().isEmpty() ? "" : summary.statuses());
+        }
+        System.out.printf(Locale.ROOT, "%-16s %9d %9.1f%n", "total", total, totalThroughput);
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-30s %10s %10s%n", "backend resource", "avg", "peak");
+        for (Map.Entry<String, double[]> entry : sampler.summary().entrySet()) {
+            System.out.printf(Locale.ROOT, "%-30s %10.2f %10.2f%n", entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+        }
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-30s %10s %10s%n", "upstream stub", "requests", "injected");
+        for (StubServer.Upstream upstream : stubs.upstreams()) {
+            System.out.printf(Locale.ROOT, "%-30s %10d %10d%n", upstream.name + " (" + upstream.latency.toMillis() + " ms)",
+                    upstream.requests.get(), upstream.errors.get());
+        }
+    }
+
+    private static Process startBackend(String jar, URI backend, URI management, String stubUrl, Options options)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(split(options.string("backend-jvm-args", "-Xms512m -Xmx512m")));
+        command.add("-jar");
+        command.add(jar);
+        command.add("--spring.profiles.active=loadtest");
+        command.add("--server.port=" + backend.getPort());
+        command.add("--management.server.port=" + management.getPort());
+        command.add("--loadtest.stubs=" + stubUrl);
+        command.addAll(split(options.string("backend-args", "")));
+
+        File log = new File(options.string("backend-log", "loadtest-backend.log"));
+        System.out.println("Starting backend, logging to " + log.getAbsolutePath());
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    private static void awaitHealthy(URI management, Process process, Duration timeout) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(management.resolve("/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (process != null && !process.isAlive()) {
+                throw new IllegalStateException("Backend exited with " + process.exitValue() + " during startup");
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Backend at " + management + " not healthy after " + timeout);
+    }
+
+    private static Duration cpuTime(Process process) {
+        return process.toHandle().info().totalCpuDuration().orElse(Duration.ZERO);
+    }
+
+    static List<String> split(String args) {
+        return args.isBlank() ? List.of() : Arrays.asList(args.trim().split("\\s+"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the backend's {@code /actuator/prometheus} once a second while the
+ * load runs and keeps the average and peak of a few resource gauges.
+ */
+final class ResourceSampler implements AutoCloseable {
+
+    // Report label -> Prometheus series; samples of a series are summed across tags
+    private static final Map<String, String> GAUGES = new LinkedHashMap<>();
+
+    static {
+        GAUGES.put("cpu (process, 0-1)", "process_cpu_usage");
+        GAUGES.put("heap used (MB)", "jvm_memory_used_bytes{area=\"heap\"");
+        GAUGES.put("live threads", "jvm_threads_live_threads");
+        GAUGES.put("db connections active", "hikaricp_connections_active");
+        GAUGES.put("db connections pending", "hikaricp_connections_pending");
+        GAUGES.put("outbound connections active", "reactor_netty_connection_provider_active_connections");
+    }
+
+    private static final String GC_PAUSE = "jvm_gc_pause_seconds_sum";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final URI prometheus;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, double[]> stats = new LinkedHashMap<>();
+    private int samples;
+    private double gcPauseStart = Double.NaN;
+    private double gcPauseEnd = Double.NaN;
+
+    ResourceSampler(URI management) {
+        this.prometheus = management.resolve("/actuator/prometheus");
+        GAUGES.keySet().forEach(label -> stats.put(label, new double[2]));
+    }
+
+    void start(Duration delay) {
+        scheduler.scheduleAtFixedRate(this::sample, delay.toMillis(), 1_000, TimeUnit.MILLISECONDS);
+    }
+
+    private void sample() {
+        String body;
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(prometheus).timeout(Duration.ofSeconds(2)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return;
+            }
+            body = response.body();
+        } catch (Exception e) {
+            return;
+        }
+
+        synchronized (this) {
+            samples++;
+            for (Map.Entry<String, String> gauge : GAUGES.entrySet()) {
+                double value = sum(body, gauge.getValue());
+                if (gauge.getKey().endsWith("(MB)")) {
+                    value /= 1024 * 1024;
+                }
+                double[] stat = stats.get(gauge.getKey());
+                stat[0] += value;
+                stat[1] = Math.max(stat[1], value);
+            }
+            double gcPause = sum(body, GC_PAUSE);
+            if (Double.isNaN(gcPauseStart)) {
+                gcPauseStart = gcPause;
+            }
+            gcPauseEnd = gcPause;
+        }
+    }
+
+    // Sums the samples of a series across its tags; a series with a tag prefix only matches those
+    private static double sum(String body, String series) {
+        boolean tagged = series.indexOf('{') > 0;
+        double total = 0;
+        for (String line : body.split("\n")) {
+            if (tagged ? line.startsWith(series) : line.startsWith(series + " ") || line.startsWith(series + "{")) {
+                int space = line.lastIndexOf(' ');
+                try {
+                    total += Double.parseDouble(line.substring(space + 1));
+                } catch (NumberFormatException e) {
+                    // NaN and other unparsable samples are skipped
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Label to {average, peak}, plus total GC pause seconds during the run.
+     */
+    synchronized Map<String, double[]> summary() {
+        Map<String, double[]> summary = new LinkedHashMap<>();
+        stats.forEach((label, stat) -> summary.put(label,
+                new double[] {samples == 0 ? 0 : stat[0] / samples, stat[1]}));
+        double gcPause = Double.isNaN(gcPauseStart) ? 0 : gcPauseEnd - gcPauseStart;
+        summary.put("gc pause (s, total)", new double[] {gcPause, gcPause});
+        return summary;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
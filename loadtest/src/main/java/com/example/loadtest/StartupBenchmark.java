@@ -0,0 +1,279 @@
+package com.example.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * Measures how long the backend takes from process start until
+ * {@code /actuator/health/readiness} is UP, in each startup mode: the plain jar,
+ * the AOT-processed jar, and both again on the extracted jar with a class-data
+ * sharing archive from a training run. See {@code be/STARTUP.md}.
+ */
+public final class StartupBenchmark {
+
+    static final String JAR = "jar";
+    static final String AOT = "aot";
+    static final String CDS = "cds";
+    static final String AOT_CDS = "aot-cds";
+
+    private static final String AOT_INITIALIZER = "BOOT-INF/classes/com/example/be/BeApplication__ApplicationContextInitializer.class";
+    // Placeholders application.yml needs resolved; nothing signs in during the benchmark
+    private static final List<String> REQUIRED_ENV = List.of(
+            "GITHUB_CLIENT_ID", "GITHUB_CLIENT_SECRET", "JIRA_CLIENT_ID", "JIRA_CLIENT_SECRET");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final Path jar;
+    private final Path workDir;
+    private final URI management;
+    private final List<String> jvmArgs;
+    private final List<String> appArgs;
+    private final Duration timeout;
+
+    private StartupBenchmark(Path jar, Path workDir, int managementPort, List<String> jvmArgs, List<String> appArgs,
+            Duration timeout) {
+        this.jar = jar;
+        this.workDir = workDir;
+        this.management = URI.create("http://localhost:" + managementPort);
+        this.jvmArgs = jvmArgs;
+        this.appArgs = appArgs;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String jarOption = options.string("backend-jar", null);
+        if (jarOption == null) {
+            throw new IllegalArgumentException("--backend-jar is required");
+        }
+        int runs = options.integer("runs", 5);
+        List<String> modes = LoadTest.split(options.string("modes", String.join(",", JAR, AOT, CDS, AOT_CDS))
+                .replace(',', ' '));
+
+        List<String> appArgs = new ArrayList<>();
+        appArgs.add("--spring.profiles.active=" + options.string("profiles", "prod"));
+        int port = options.integer("port", 18080);
+        int managementPort = options.integer("management-port", port + 1);
+        appArgs.add("--server.port=" + port);
+        appArgs.add("--management.server.port=" + managementPort);
+        appArgs.addAll(LoadTest.split(options.string("backend-args", "")));
+
+        StartupBenchmark benchmark = new StartupBenchmark(Path.of(jarOption),
+                Path.of(options.string("work-dir", "target/startup")), managementPort,
+                LoadTest.split(options.string("backend-jvm-args", "-Xms512m -Xmx512m")), appArgs,
+                options.duration("startup-timeout", Duration.ofMinutes(2)));
+
+        boolean aotProcessed = benchmark.isAotProcessed();
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            if ((AOT.equals(mode) || AOT_CDS.equals(mode)) && !aotProcessed) {
+                System.out.println("Skipping " + mode + ": " + jarOption + " was not built with -Pprod");
+                continue;
+            }
+            results.add(benchmark.measure(mode, runs));
+        }
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-10s %5s %12s %12s %12s %14s%n",
+                "mode", "runs", "ready ms", "min ms", "max ms", "spring ms");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-10s %5d %12d %12d %12d %14d%n", result.mode(), result.readyMillis().length,
+                    median(result.readyMillis()), result.readyMillis()[0],
+                    result.readyMillis()[result.readyMillis().length - 1], median(result.springMillis()));
+        }
+        System.out.println("ready: process start to readiness UP (median); spring: application.ready.time (median)");
+
+        String csv = options.string("csv", null);
+        if (csv != null) {
+            appendCsv(Path.of(csv), results);
+        }
+    }
+
+    private Result measure(String mode, int runs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(jvmArgs);
+        if (AOT.equals(mode) || AOT_CDS.equals(mode)) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        Path target = jar;
+        if (CDS.equals(mode) || AOT_CDS.equals(mode)) {
+            target = extract();
+            Path archive = workDir.resolve(mode + ".jsa").toAbsolutePath();
+            train(command, target, archive);
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.add("-jar");
+        command.add(target.toString());
+        command.addAll(appArgs);
+
+        long[] ready = new long[runs];
+        long[] spring = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long[] timings = start(command, mode + "-" + (run + 1));
+            ready[run] = timings[0];
+            spring[run] = timings[1];
+            System.out.printf(Locale.ROOT, "%-10s run %d: ready in %d ms%n", mode, run + 1, ready[run]);
+        }
+        Arrays.sort(ready);
+        Arrays.sort(spring);
+        return new Result(mode, ready, spring);
+    }
+
+    /**
+     * Starts the backend, waits for readiness and stops it again. Returns the wall
+     * clock time to readiness and Spring's own application.ready.time, in ms.
+     */
+    private long[] start(List<String> args, String name) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(args);
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log(name));
+        withRequiredEnv(builder);
+
+        long started = System.nanoTime();
+        Process process = builder.start();
+        try {
+            long ready = awaitReady(process, started);
+            return new long[] {ready, springReadyMillis()};
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private long awaitReady(Process process, long started) throws InterruptedException {
+        HttpRequest readiness = HttpRequest.newBuilder(management.resolve("/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        long deadline = started + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with " + process.exitValue() + " during startup");
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - started) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Backend not ready after " + timeout);
+    }
+
+    private long springReadyMillis() throws InterruptedException {
+        try {
+            String body = client.send(HttpRequest.newBuilder(management.resolve("/actuator/prometheus")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            for (String line : body.split("\n")) {
+                if (line.startsWith("application_ready_time_seconds")) {
+                    return Math.round(Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)) * 1000);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Reported as -1 below
+        }
+        return -1;
+    }
+
+    // The tools jar mode lays the jar out the way a class-data sharing archive needs: app jar plus lib/
+    private Path extract() throws IOException, InterruptedException {
+        Path destination = workDir.resolve("application").toAbsolutePath();
+        if (Files.exists(destination)) {
+            try (Stream<Path> paths = Files.walk(destination)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+        Files.createDirectories(workDir);
+        run(List.of(java(), "-Djarmode=tools", "-jar", jar.toAbsolutePath().toString(),
+                "extract", "--destination", destination.toString()), "extract");
+        return destination.resolve(jar.getFileName());
+    }
+
+    // Training run: starts the context, exits once it is refreshed and dumps the loaded classes
+    private void train(List<String> jvmOptions, Path extracted, Path archive) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive);
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(jvmOptions);
+        command.add("-XX:ArchiveClassesAtExit=" + archive);
+        command.add("-Dspring.context.exit=onRefresh");
+        command.add("-jar");
+        command.add(extracted.toString());
+        command.addAll(appArgs);
+        run(command, "training-" + archive.getFileName());
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("Training run did not write " + archive);
+        }
+    }
+
+    private void run(List<String> command, String name) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log(name));
+        withRequiredEnv(builder);
+        Process process = builder.start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + log(name));
+        }
+    }
+
+    private static void withRequiredEnv(ProcessBuilder builder) {
+        REQUIRED_ENV.forEach(variable -> builder.environment().putIfAbsent(variable, "startup-benchmark"));
+    }
+
+    private boolean isAotProcessed() {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            return zip.getEntry(AOT_INITIALIZER) != null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + jar, e);
+        }
+    }
+
+    private File log(String name) throws IOException {
+        Files.createDirectories(workDir);
+        return workDir.resolve(name + ".log").toFile();
+    }
+
+    private static String java() {
+        return ProcessHandle.current().info().command().orElse("java");
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    // One row per mode and run date, so successive builds can be compared
+    private static void appendCsv(Path csv, List<Result> results) throws IOException {
+        StringBuilder rows = new StringBuilder();
+        if (!Files.exists(csv)) {
+            rows.append("timestamp,mode,runs,ready_ms,min_ms,max_ms,spring_ms\n");
+        }
+        String now = Instant.now().toString();
+        for (Result result : results) {
+            long[] ready = result.readyMillis();
+            rows.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d%n", now, result.mode(), ready.length,
+                    median(ready), ready[0], ready[ready.length - 1], median(result.springMillis())));
+        }
+        Files.writeString(csv, rows, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private record Result(String mode, long[] readyMillis, long[] springMillis) {
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-ins for GitHub ({@code /github}), Groq ({@code /groq}) and a Jira site
+ * ({@code /jira}) on one local port, replaying the recorded responses under
+ * {@code stubs/}. Every upstream has its own latency, jitter and error rate; an
+ * injected error is a {@code 503} after the usual delay.
+ *
+ * <p>The Jira site has one project, {@value #PROJECT}, with issues
+ * {@code SHOP-1..SHOP-n}; search pages, bulk fetches and single issues are all
+ * rendered from {@code jira-issue.json}.
+ */
+final class StubServer implements AutoCloseable {
+
+    static final String PROJECT = "SHOP";
+
+    private static final Pattern COMPARE = Pattern.compile("/github/repos/[^/]+/[^/]+/compare/.+");
+    private static final Pattern ISSUE = Pattern.compile("/jira/rest/api/3/issue/([^/]+)");
+    private static final Pattern PROJECT_PATH = Pattern.compile("/jira/rest/api/3/project/([^/]+)");
+    private static final int ISSUE_ID_OFFSET = 10_000;
+
+    /**
+     * Latency and fault settings of one upstream, plus what it served.
+     */
+    static final class Upstream {
+        final String name;
+        final Duration latency;
+        // Delay varies uniformly within latency * (1 ± jitter)
+        final double jitter;
+        final double errorRate;
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+
+        Upstream(String name, Duration latency, double jitter, double errorRate) {
+            this.name = name;
+            this.latency = latency;
+            this.jitter = jitter;
+            this.errorRate = errorRate;
+        }
+
+        static Upstream from(Options options, String name, Duration defaultLatency) {
+            return new Upstream(name,
+                    options.duration(name + "-latency", defaultLatency),
+                    options.decimal(name + "-jitter", options.decimal("jitter", 0.3)),
+                    options.decimal(name + "-error-rate", options.decimal("error-rate", 0.0)));
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Upstream> upstreams = new LinkedHashMap<>();
+    private final int jiraIssues;
+    private final byte[] compare;
+    private final byte[] chatCompletion;
+    private final String project;
+    private final String issue;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    StubServer(int port, List<Upstream> upstreams, int jiraIssues) throws IOException {
+        upstreams.forEach(upstream -> this.upstreams.put(upstream.name, upstream));
+        this.jiraIssues = jiraIssues;
+        this.compare = resource("github-compare.json");
+        this.chatCompletion = resource("groq-chat-completion.json");
+        this.project = new String(resource("jira-project.json"), StandardCharsets.UTF_8);
+        // Compacted so rendered issues can be joined into one line
+        this.issue = objectMapper.readTree(resource("jira-issue.json")).toString();
+
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/", this::handle);
+        // Handlers sleep through the injected latency, so every request gets a thread
+        server.setExecutor(executor);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    List<Upstream> upstreams() {
+        return List.copyOf(upstreams.values());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            int slash = path.indexOf('/', 1);
+            Upstream upstream = upstreams.get(slash > 0 ? path.substring(1, slash) : path.substring(1));
+            if (upstream == null) {
+                send(exchange, 404, "{\"message\":\"Unknown upstream\"}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            upstream.requests.incrementAndGet();
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+
+            delay(upstream);
+            if (ThreadLocalRandom.current().nextDouble() < upstream.errorRate) {
+                upstream.errors.incrementAndGet();
+                send(exchange, 503, "{\"message\":\"Injected failure\"}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            Response response = route(exchange.getRequestMethod(), path, exchange.getRequestURI().getRawQuery(), requestBody);
+            send(exchange, response.status, response.body);
+        }
+    }
+
+    private record Response(int status, byte[] body) {
+        static Response ok(String body) {
+            return new Response(200, body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Response notFound() {
+            return new Response(404, "{\"errorMessages\":[\"Not found\"]}".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private Response route(String method, String path, String query, byte[] requestBody) throws IOException {
+        if ("GET".equals(method) && COMPARE.matcher(path).matches()) {
+            return new Response(200, compare);
+        }
+        if ("POST".equals(method) && path.equals("/groq/openai/v1/chat/completions")) {
+            return new Response(200, chatCompletion);
+        }
+        if ("GET".equals(method) && path.equals("/jira/rest/api/3/search/jql")) {
+            return search(queryParameters(query));
+        }
+        if ("POST".equals(method) && path.equals("/jira/rest/api/3/issue/bulkfetch")) {
+            return bulkFetch(objectMapper.readTree(requestBody));
+        }
+        Matcher matcher = ISSUE.matcher(path);
+        if ("GET".equals(method) && matcher.matches()) {
+            int number = issueNumber(matcher.group(1));
+            return number > 0 ? Response.ok(issue(number)) : Response.notFound();
+        }
+        matcher = PROJECT_PATH.matcher(path);
+        if ("GET".equals(method) && matcher.matches()) {
+            return PROJECT.equals(matcher.group(1))
+                    ? Response.ok(project.replace("{{key}}", PROJECT))
+                    : Response.notFound();
+        }
+        return Response.notFound();
+    }
+
+    // Newest issues first, paged with an offset as the next page token
+    private Response search(Map<String, String> parameters) {
+        int maxResults = Integer.parseInt(parameters.getOrDefault("maxResults", "50"));
+        int offset = Integer.parseInt(parameters.getOrDefault("nextPageToken", "0"));
+        int end = Math.min(jiraIssues, offset + maxResults);
+
+        StringBuilder body = new StringBuilder("{\"issues\":[");
+        for (int i = offset; i < end; i++) {
+            if (i > offset) {
+                body.append(',');
+            }
+            body.append(issue(jiraIssues - i));
+        }
+        body.append(']');
+        if (end < jiraIssues) {
+            body.append(",\"nextPageToken\":\"").append(end).append("\",\"isLast\":false");
+        } else {
+            body.append(",\"isLast\":true");
+        }
+        return Response.ok(body.append('}').toString());
+    }
+
+    private Response bulkFetch(JsonNode request) {
+        List<String> found = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (JsonNode idOrKey : request.path("issueIdsOrKeys")) {
+            int number = issueNumber(idOrKey.asText());
+            if (number > 0) {
+                found.add(issue(number));
+            } else {
+                missing.add("{\"id\":\"" + idOrKey.asText() + "\",\"errorMessages\":[\"Issue does not exist\"]}");
+            }
+        }
+        return Response.ok("{\"issues\":[" + String.join(",", found) + "],\"issueErrors\":["
+                + String.join(",", missing) + "]}");
+    }
+
+    // SHOP-12 or its id 10012; 0 when the issue does not exist
+    private int issueNumber(String idOrKey) {
+        int number;
+        try {
+            number = idOrKey.startsWith(PROJECT + "-")
+                    ? Integer.parseInt(idOrKey.substring(PROJECT.length() + 1))
+                    : Integer.parseInt(idOrKey) - ISSUE_ID_OFFSET;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+        return number >= 1 && number <= jiraIssues ? number : 0;
+    }
+
+    private String issue(int number) {
+        return issue.replace("{{key}}", PROJECT + "-" + number)
+                .replace("{{id}}", String.valueOf(ISSUE_ID_OFFSET + number));
+    }
+
+    private static void delay(Upstream upstream) {
+        long millis = upstream.latency.toMillis();
+        if (millis <= 0) {
+            return;
+        }
+        double factor = 1 + upstream.jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        try {
+            Thread.sleep(Math.max(0, Math.round(millis * factor)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> queryParameters(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static byte[] resource(String name) {
+        try (InputStream in = StubServer.class.getResourceAsStream("/stubs/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing stub response " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}